@@ -0,0 +1,93 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Bridges the benchmarks to the game classes.
+ * JMH rejects benchmarks in the default package and Java cannot import from it,
+ * so engine methods are bound here as static final MethodHandles, which the JIT
+ * treats as constants and inlines like direct calls.
+ */
+final class Engine {
+    static final MethodHandle NEW_CONTROLLER;
+    static final MethodHandle SET_MAX_SPOTS;
+    static final MethodHandle SET_NUMBER_OF_DRAWINGS;
+    static final MethodHandle AUTO_PICK;
+    static final MethodHandle PREPARE_DRAWINGS;
+    static final MethodHandle GET_MATCHES;
+    static final MethodHandle GET_MATCH_COUNT;
+    static final MethodHandle NEW_TICKET_STORE;
+    static final MethodHandle ADD_TICKET;
+    static final MethodHandle NEW_DRAW_MASK;
+    static final MethodHandle SETTLE;
+    static final MethodHandle GET_SCHEDULE;
+    static final MethodHandle SCHEDULE_PAYOUT_CENTS;
+    static final MethodHandle RNG_CREATE;
+    static final MethodHandle RNG_NEXT_LONG;
+    static final MethodHandle RNG_NEXT_INT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> controller = Class.forName("GameController");
+            Class<?> payoutTable = Class.forName("PayoutTable");
+            Class<?> ticketStore = Class.forName("TicketStore");
+            Class<?> ticketColumns = Class.forName("TicketColumns");
+            Class<?> drawMask = Class.forName("DrawMask");
+            Class<?> settlement = Class.forName("BatchSettlement");
+            Class<?> result = Class.forName("SettlementResult");
+            Class<?> schedule = Class.forName("PaySchedule");
+            Class<?> rngProvider = Class.forName("RngProvider");
+            Class<?> rngMode = Class.forName("RngProvider$Mode");
+            Class<?> randomStream = Class.forName("RandomStream");
+
+            NEW_CONTROLLER = erase(lookup.findConstructor(controller, MethodType.methodType(void.class)));
+            SET_MAX_SPOTS = erase(lookup.findVirtual(controller, "setMaxSpots",
+                MethodType.methodType(boolean.class, int.class)));
+            SET_NUMBER_OF_DRAWINGS = erase(lookup.findVirtual(controller, "setNumberOfDrawings",
+                MethodType.methodType(boolean.class, int.class)));
+            AUTO_PICK = erase(lookup.findVirtual(controller, "autoPick", MethodType.methodType(void.class)));
+            PREPARE_DRAWINGS = erase(lookup.findVirtual(controller, "prepareDrawings",
+                MethodType.methodType(void.class)));
+            GET_MATCHES = erase(lookup.findVirtual(controller, "getMatches",
+                MethodType.methodType(java.util.Set.class)));
+            GET_MATCH_COUNT = erase(lookup.findVirtual(controller, "getMatchCount", MethodType.methodType(int.class)));
+            NEW_TICKET_STORE = erase(lookup.findConstructor(ticketStore,
+                MethodType.methodType(void.class, int.class)));
+            ADD_TICKET = erase(lookup.findVirtual(ticketStore, "add",
+                MethodType.methodType(int.class, long.class, long.class)));
+            NEW_DRAW_MASK = erase(lookup.findConstructor(drawMask,
+                MethodType.methodType(void.class, long.class, long.class)));
+            SETTLE = erase(lookup.findStatic(settlement, "settle",
+                MethodType.methodType(result, ticketColumns, drawMask)));
+            GET_SCHEDULE = erase(lookup.findStatic(payoutTable, "getSchedule", MethodType.methodType(schedule)));
+            SCHEDULE_PAYOUT_CENTS = erase(lookup.findVirtual(schedule, "getPayoutCents",
+                MethodType.methodType(long.class, int.class, int.class, int.class)));
+            RNG_CREATE = erase(lookup.findStatic(rngProvider, "create",
+                MethodType.methodType(randomStream, rngMode, long.class)));
+            RNG_NEXT_LONG = erase(lookup.findVirtual(randomStream, "nextLong", MethodType.methodType(long.class)));
+            RNG_NEXT_INT = erase(lookup.findVirtual(randomStream, "nextInt",
+                MethodType.methodType(int.class, int.class)));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Engine() {
+    }
+
+    /**
+     * Looks up an RngProvider.Mode constant by name
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object rngMode(String name) throws ClassNotFoundException {
+        return Enum.valueOf((Class) Class.forName("RngProvider$Mode"), name);
+    }
+
+    // Replaces every game class in the signature with Object so callers can use invokeExact
+    private static MethodHandle erase(MethodHandle handle) {
+        return handle.asType(handle.type().erase());
+    }
+}
@@ -0,0 +1,71 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-ticket hot paths of GameController and PayoutTable
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameControllerBenchmark {
+    @Param({"1", "4", "8", "10"})
+    public int spots;
+
+    private Object controller;
+    private Object schedule;
+
+    @Setup
+    public void setup() throws Throwable {
+        controller = (Object) Engine.NEW_CONTROLLER.invokeExact();
+        boolean ok = (boolean) Engine.SET_MAX_SPOTS.invokeExact(controller, spots);
+        ok &= (boolean) Engine.SET_NUMBER_OF_DRAWINGS.invokeExact(controller, 1);
+        if (!ok) {
+            throw new IllegalStateException("Invalid benchmark setup for " + spots + " spots");
+        }
+        Engine.AUTO_PICK.invokeExact(controller);
+        Engine.PREPARE_DRAWINGS.invokeExact(controller);
+        schedule = (Object) Engine.GET_SCHEDULE.invokeExact();
+    }
+
+    @Benchmark
+    public void autoPick() throws Throwable {
+        Engine.AUTO_PICK.invokeExact(controller);
+    }
+
+    @Benchmark
+    public void prepareDrawings() throws Throwable {
+        Engine.PREPARE_DRAWINGS.invokeExact(controller);
+    }
+
+    @Benchmark
+    public Object getMatches() throws Throwable {
+        // The handle is erased, so the call site must return Object for invokeExact
+        return (Object) Engine.GET_MATCHES.invokeExact(controller);
+    }
+
+    @Benchmark
+    public int getMatchCount() throws Throwable {
+        return (int) Engine.GET_MATCH_COUNT.invokeExact(controller);
+    }
+
+    @Benchmark
+    public long getPayoutCents() throws Throwable {
+        int matches = (int) Engine.GET_MATCH_COUNT.invokeExact(controller);
+        return (long) Engine.SCHEDULE_PAYOUT_CENTS.invokeExact(schedule, spots, matches, 1);
+    }
+}
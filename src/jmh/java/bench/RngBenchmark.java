@@ -0,0 +1,47 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of each RNG mode: raw 64-bit values and bounded ball picks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RngBenchmark {
+    private static final int POOL_SIZE = 80;
+
+    @Param({"SPLITTABLE", "XOROSHIRO", "SECURE"})
+    public String mode;
+
+    private Object rng;
+
+    @Setup
+    public void setup() throws Throwable {
+        rng = (Object) Engine.RNG_CREATE.invokeExact(Engine.rngMode(mode), 42L);
+    }
+
+    @Benchmark
+    public long nextLong() throws Throwable {
+        return (long) Engine.RNG_NEXT_LONG.invokeExact(rng);
+    }
+
+    @Benchmark
+    public int nextBall() throws Throwable {
+        return (int) Engine.RNG_NEXT_INT.invokeExact(rng, POOL_SIZE);
+    }
+}
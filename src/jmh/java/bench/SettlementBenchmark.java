@@ -0,0 +1,151 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Batch settlement throughput over spot count and batch size.
+ * settle is the real parallel BatchSettlement; popcount and invertedIndex are
+ * single-threaded totals over the same tickets, comparing AND plus popcount per
+ * ticket with a number -> tickets index walked once per drawn ball.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementBenchmark {
+    private static final int POOL_SIZE = 80;
+
+    @Param({"1", "4", "8", "10"})
+    public int spots;
+
+    @Param({"1000", "100000", "1000000"})
+    public int batchSize;
+
+    private Object tickets;
+    private Object draw;
+    private long[] ticketLo;
+    private long[] ticketHi;
+    private long drawLo;
+    private long drawHi;
+    private int[] drawnNumbers;
+    private int[][] ticketsByNumber;
+    private byte[] hits;
+    private long[] payouts;
+
+    @Setup
+    public void setup() throws Throwable {
+        SplittableRandom rng = new SplittableRandom(42);
+        tickets = (Object) Engine.NEW_TICKET_STORE.invokeExact(batchSize);
+        ticketLo = new long[batchSize];
+        ticketHi = new long[batchSize];
+        int[] perNumber = new int[POOL_SIZE + 1];
+        for (int i = 0; i < batchSize; i++) {
+            long[] mask = randomMask(rng, spots);
+            int id = (int) Engine.ADD_TICKET.invokeExact(tickets, mask[0], mask[1]);
+            ticketLo[i] = mask[0];
+            ticketHi[i] = mask[1];
+            for (int n : numbers(mask)) {
+                perNumber[n]++;
+            }
+        }
+        ticketsByNumber = new int[POOL_SIZE + 1][];
+        for (int n = 1; n <= POOL_SIZE; n++) {
+            ticketsByNumber[n] = new int[perNumber[n]];
+            perNumber[n] = 0;
+        }
+        for (int i = 0; i < batchSize; i++) {
+            for (int n : numbers(new long[]{ticketLo[i], ticketHi[i]})) {
+                ticketsByNumber[n][perNumber[n]++] = i;
+            }
+        }
+        hits = new byte[batchSize];
+
+        long[] mask = randomMask(rng, 20);
+        draw = (Object) Engine.NEW_DRAW_MASK.invokeExact(mask[0], mask[1]);
+        drawLo = mask[0];
+        drawHi = mask[1];
+        drawnNumbers = numbers(mask);
+
+        Object schedule = (Object) Engine.GET_SCHEDULE.invokeExact();
+        payouts = new long[spots + 1];
+        for (int k = 0; k <= spots; k++) {
+            payouts[k] = (long) Engine.SCHEDULE_PAYOUT_CENTS.invokeExact(schedule, spots, k, 1);
+        }
+    }
+
+    @Benchmark
+    public Object settle() throws Throwable {
+        return (Object) Engine.SETTLE.invokeExact(tickets, draw);
+    }
+
+    @Benchmark
+    public long popcount() {
+        long total = 0;
+        for (int i = 0; i < ticketLo.length; i++) {
+            total += payouts[Long.bitCount(ticketLo[i] & drawLo) + Long.bitCount(ticketHi[i] & drawHi)];
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long invertedIndex() {
+        Arrays.fill(hits, (byte) 0);
+        for (int n : drawnNumbers) {
+            for (int ticket : ticketsByNumber[n]) {
+                hits[ticket]++;
+            }
+        }
+        long total = 0;
+        for (int i = 0; i < hits.length; i++) {
+            total += payouts[hits[i]];
+        }
+        return total;
+    }
+
+    // Numbers 1-80 in a raw mask, ascending
+    private static int[] numbers(long[] mask) {
+        int[] out = new int[Long.bitCount(mask[0]) + Long.bitCount(mask[1])];
+        int k = 0;
+        for (int n = 1; n <= POOL_SIZE; n++) {
+            long word = n <= 64 ? mask[0] : mask[1];
+            if ((word & (1L << ((n - 1) & 63))) != 0) {
+                out[k++] = n;
+            }
+        }
+        return out;
+    }
+
+    // Rejection sampling is fine here, setup is not measured
+    private static long[] randomMask(SplittableRandom rng, int count) {
+        long lo = 0L;
+        long hi = 0L;
+        int picked = 0;
+        while (picked < count) {
+            int n = rng.nextInt(POOL_SIZE);
+            long bit = 1L << (n & 63);
+            if (n < 64 && (lo & bit) == 0) {
+                lo |= bit;
+                picked++;
+            } else if (n >= 64 && (hi & bit) == 0) {
+                hi |= bit;
+                picked++;
+            }
+        }
+        return new long[]{lo, hi};
+    }
+}
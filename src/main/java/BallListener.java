@@ -0,0 +1,16 @@
+/**
+ * Receives the current drawing one ball at a time as it is revealed
+ */
+@FunctionalInterface
+public interface BallListener {
+
+    /**
+     * Called for each ball in draw order
+     *
+     * @param ball the number drawn (1-80)
+     * @param position its position in the draw (0-19)
+     * @param matches matches on the player's ticket so far
+     * @param payoutCents what the ticket would pay if the draw ended now
+     */
+    void onBall(int ball, int position, int matches, long payoutCents);
+}
@@ -0,0 +1,79 @@
+/**
+ * Immutable result of one drawing published by the DrawEngine
+ */
+public final class Draw {
+    // Sequence of a draw generated ahead of time that has not gone live yet
+    public static final long UNPUBLISHED = -1L;
+
+    private final long sequence;
+    private final long timestampMillis;
+    private final long seed;
+    private final DrawMask mask;
+    private final int[] order;
+
+    // Constructor, order is copied so the draw cannot change after publication
+    public Draw(long sequence, long timestampMillis, long seed, int[] order) {
+        this(sequence, timestampMillis, seed, order, DrawMask.of(order));
+    }
+
+    Draw(long sequence, long timestampMillis, long seed, int[] order, DrawMask mask) {
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.seed = seed;
+        this.order = order.clone();
+        this.mask = mask;
+    }
+
+    // Same balls, numbered and stamped when the draw goes live
+    private Draw(Draw pending, long sequence, long timestampMillis) {
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.seed = pending.seed;
+        this.order = pending.order;
+        this.mask = pending.mask;
+    }
+
+    Draw published(long sequence, long timestampMillis) {
+        return new Draw(this, sequence, timestampMillis);
+    }
+
+    public boolean isPublished() {
+        return sequence != UNPUBLISHED;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public DrawMask getMask() {
+        return mask;
+    }
+
+    /**
+     * Ball drawn at the given position (0-19)
+     */
+    public int getBall(int position) {
+        return order[position];
+    }
+
+    public int getBallCount() {
+        return order.length;
+    }
+
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "Draw #" + sequence + " " + mask;
+    }
+}
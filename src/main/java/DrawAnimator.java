@@ -0,0 +1,71 @@
+import javafx.animation.AnimationTimer;
+
+/**
+ * One reusable frame-driven animation for revealing a drawing.
+ *
+ * Runs on the JavaFX pulse and advances a DrawClock by the pulse timestamp. Every
+ * step that came due runs its step action, then the frame action runs once, so a
+ * late pulse coalesces its steps into a single repaint and skipped pulses cost
+ * nothing. The callbacks are set once; play() just restarts the clock.
+ */
+public class DrawAnimator extends AnimationTimer {
+    private final DrawClock clock;
+    private final Runnable onStep;
+    private final Runnable onFrame;
+    private final Runnable onFinished;
+    private boolean running;
+
+    // Constructor
+    public DrawAnimator(long stepNanos, Runnable onStep, Runnable onFrame, Runnable onFinished) {
+        this.clock = new DrawClock(stepNanos);
+        this.onStep = onStep;
+        this.onFrame = onFrame;
+        this.onFinished = onFinished;
+    }
+
+    /**
+     * Starts revealing the given number of steps from now, restarting any run in progress
+     */
+    public void play(int steps) {
+        clock.start(System.nanoTime(), steps);
+        running = true;
+        start();
+    }
+
+    @Override
+    public void handle(long now) {
+        int due = clock.advance(now);
+        for (int i = 0; i < due; i++) {
+            onStep.run();
+        }
+        if (due > 0) {
+            onFrame.run();
+        }
+        if (clock.isDone()) {
+            stop();
+            onFinished.run();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        super.stop();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public double getSpeed() {
+        return clock.getSpeed();
+    }
+
+    public void setSpeed(double speed) {
+        clock.setSpeed(speed);
+    }
+
+    public DrawClock getClock() {
+        return clock;
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring of draws generated ahead of time, so taking the next draw never waits on the RNG.
+ *
+ * A single background producer generates draws through the engine and keeps the ring
+ * full. Any number of consumers take draws with one compare-and-set on the head; each
+ * draw goes to exactly one consumer and is published by the engine when it is taken.
+ * The engine numbers and journals a draw only as it publishes it, so sequence numbers,
+ * the journal and subscribers all follow publication order, and buffered draws that
+ * never go live are never recorded. If the ring is ever empty the consumer generates a
+ * draw inline rather than wait, and the miss is counted.
+ */
+public class DrawBuffer implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private static DrawBuffer shared;
+
+    private final DrawEngine engine;
+    private final Draw[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Thread producer;
+    private volatile boolean running = true;
+    private volatile long lastProducedNanos;
+
+    // Constructor, capacity must be a power of two
+    public DrawBuffer(DrawEngine engine, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.engine = engine;
+        this.slots = new Draw[capacity];
+        this.mask = capacity - 1;
+        this.lastProducedNanos = System.nanoTime();
+        this.producer = new Thread(this::produceLoop, "draw-producer");
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    /**
+     * Process-wide buffer over its own engine, started on first use
+     */
+    public static synchronized DrawBuffer shared() {
+        if (shared == null) {
+            shared = new DrawBuffer(new DrawEngine(), DEFAULT_CAPACITY);
+        }
+        return shared;
+    }
+
+    /**
+     * Takes and publishes the next draw. Never blocks on the producer
+     */
+    public Draw take() {
+        while (true) {
+            long h = head.get();
+            if (h >= tail.get()) {
+                misses.incrementAndGet();
+                return engine.runDraw();
+            }
+            // Read before claiming: the producer cannot reuse the slot until head passes it
+            Draw draw = slots[(int) (h & mask)];
+            if (head.compareAndSet(h, h + 1)) {
+                LockSupport.unpark(producer);
+                return engine.publish(draw);
+            }
+        }
+    }
+
+    public DrawEngine getEngine() {
+        return engine;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Draws ready to be taken
+     */
+    public int getDepth() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Draws the producer is short of a full ring
+     */
+    public int getProducerLag() {
+        return slots.length - getDepth();
+    }
+
+    /**
+     * Nanoseconds since the producer last added a draw, zero while the ring is full
+     */
+    public long getProducerLagNanos() {
+        return getDepth() == slots.length ? 0L : System.nanoTime() - lastProducedNanos;
+    }
+
+    public long getProducedCount() {
+        return tail.get();
+    }
+
+    public long getTakenCount() {
+        return head.get();
+    }
+
+    /**
+     * Takes that found the ring empty and generated inline
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Stops the producer; draws already buffered can still be taken
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(producer);
+    }
+
+    private void produceLoop() {
+        while (running) {
+            long t = tail.get();
+            if (t - head.get() > mask) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            slots[(int) (t & mask)] = engine.generateDraw();
+            tail.set(t + 1);
+            lastProducedNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Step clock for frame-driven animations, fed with pulse timestamps in nanoseconds.
+ *
+ * Step k is due once k * stepNanos of play time has passed, where play time is wall
+ * time scaled by the current speed. Deadlines are absolute, so a late pulse simply
+ * gets every step that came due since the last one and the schedule never drifts.
+ * Changing speed only rescales the time still to come.
+ */
+public class DrawClock {
+    private final long stepNanos;
+    private double speed = 1.0;
+    private int steps;
+    private int stepsDone;
+    private double playNanos;
+    private long lastNanos;
+    private long lateSteps;
+
+    // Constructor
+    public DrawClock(long stepNanos) {
+        if (stepNanos <= 0) {
+            throw new IllegalArgumentException("stepNanos must be positive: " + stepNanos);
+        }
+        this.stepNanos = stepNanos;
+    }
+
+    /**
+     * Restarts the clock at now for the given number of steps
+     */
+    public void start(long now, int steps) {
+        this.steps = steps;
+        this.stepsDone = 0;
+        this.playNanos = 0.0;
+        this.lastNanos = now;
+    }
+
+    /**
+     * Moves the clock to now and returns how many steps came due, zero or more
+     */
+    public int advance(long now) {
+        // Pulse timestamps can trail the time start() was called at
+        if (now > lastNanos) {
+            playNanos += (now - lastNanos) * speed;
+            lastNanos = now;
+        }
+        int due = (int) Math.min(steps, (long) (playNanos / stepNanos)) - stepsDone;
+        if (due > 1) {
+            lateSteps += due - 1;
+        }
+        stepsDone += due;
+        return due;
+    }
+
+    public boolean isDone() {
+        return stepsDone >= steps;
+    }
+
+    public int getStepsDone() {
+        return stepsDone;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Sets the play rate, 2.0 runs twice as fast; takes effect from the last advance
+     */
+    public void setSpeed(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Reads a configured speed, falling back to 1.0 with a warning when it is not a
+     * positive finite number. Null means not configured
+     */
+    public static double parseSpeed(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return 1.0;
+        }
+        try {
+            double speed = Double.parseDouble(value.trim());
+            if (speed > 0 && !Double.isInfinite(speed)) {
+                return speed;
+            }
+        } catch (NumberFormatException e) {
+            // warned below
+        }
+        System.err.println("Ignoring animation speed '" + value + "', using 1.0");
+        return 1.0;
+    }
+
+    /**
+     * Steps that shared a pulse with an earlier step because the pulse came late
+     */
+    public long getCoalescedSteps() {
+        return lateSteps;
+    }
+}
@@ -0,0 +1,156 @@
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Single authoritative source of draws, safe to share between threads.
+ * Every draw is generated from its own seed and, when it goes live, numbered,
+ * optionally journaled and pushed to all subscribers as an immutable Draw. Numbering,
+ * journaling and delivery happen under one lock, so subscribers see draws in sequence
+ * order and the journal only ever holds draws that were played. Seeds come from the
+ * RNG mode configured for live draws (certified SecureRandom by default) and are
+ * expanded into balls with xoroshiro128++, so a seed alone replays its draw.
+ */
+public class DrawEngine {
+    private final RandomStream seedRng;
+    // Journaled seeds replay their draws, so they must not be predictable from earlier ones
+    private final boolean secureSeeds;
+    private final Xoroshiro128PlusPlus drawRng = new Xoroshiro128PlusPlus(0L);
+    private final DrawGenerator generator = new DrawGenerator();
+    private final int[] drawBuffer = new int[DrawGenerator.DRAW_SIZE];
+    private final CopyOnWriteArrayList<DrawListener> listeners = new CopyOnWriteArrayList<>();
+    // Hot/cold numbers over every published draw, shared by all players of this engine
+    private final NumberStats statistics = new NumberStats();
+    private volatile Draw latest;
+    private volatile DrawJournal journal;
+    // Guarded by listeners, like everything else done at publication
+    private long nextSequence;
+
+    // Constructor
+    public DrawEngine() {
+        this(RngProvider.forUse(RngProvider.Use.LIVE_DRAW));
+    }
+
+    public DrawEngine(RandomStream seedRng) {
+        this(seedRng, seedRng instanceof SecureEntropyPool);
+    }
+
+    public DrawEngine(Random seedRng) {
+        this(RngProvider.wrap(seedRng), seedRng instanceof SecureRandom);
+    }
+
+    private DrawEngine(RandomStream seedRng, boolean secureSeeds) {
+        this.seedRng = seedRng;
+        this.secureSeeds = secureSeeds;
+    }
+
+    /**
+     * Generates, journals and publishes the next draw
+     */
+    public Draw runDraw() {
+        return publish(generateDraw());
+    }
+
+    /**
+     * Generates the next draw without publishing it, so it can be made ahead of time.
+     * It has no sequence number and is not journaled until it is published
+     */
+    public synchronized Draw generateDraw() {
+        long seed = seedRng.nextLong();
+        expand(seed, drawRng, generator, drawBuffer);
+        return new Draw(Draw.UNPUBLISHED, System.currentTimeMillis(), seed, drawBuffer, DrawMask.of(drawBuffer));
+    }
+
+    /**
+     * Puts a generated draw live: numbers and journals it, makes it the latest one and
+     * pushes it to all subscribers, returning the published draw. Uses its own lock,
+     * so publishing never waits for a draw being generated
+     */
+    public Draw publish(Draw pending) {
+        if (pending.isPublished()) {
+            throw new IllegalArgumentException("Draw already published: " + pending);
+        }
+        synchronized (listeners) {
+            long now = System.currentTimeMillis();
+            DrawJournal target = journal;
+            long sequence;
+            if (target != null) {
+                DrawMask mask = pending.getMask();
+                sequence = target.append(now, mask.lo(), mask.hi(), pending.getSeed());
+            } else {
+                sequence = nextSequence;
+            }
+            nextSequence = sequence + 1;
+            Draw draw = pending.published(sequence, now);
+            latest = draw;
+            statistics.onDraw(draw);
+            for (DrawListener listener : listeners) {
+                listener.onDraw(draw);
+            }
+            return draw;
+        }
+    }
+
+    /**
+     * Most recently published draw, null before the first one
+     */
+    public Draw getLatest() {
+        return latest;
+    }
+
+    /**
+     * Hot/cold statistics of every draw this engine has published. Fed under the
+     * publication lock, so it always has a single writer
+     */
+    public NumberStats getStatistics() {
+        return statistics;
+    }
+
+    public void subscribe(DrawListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(DrawListener listener) {
+        listeners.remove(listener);
+    }
+
+    public int getSubscriberCount() {
+        return listeners.size();
+    }
+
+    /**
+     * Journals every draw from now on, sequence numbers then follow the journal.
+     * Only allowed when seeds come from SecureRandom: a journal of seeds from a
+     * seedable generator would let its readers predict the draws that follow
+     */
+    public void setJournal(DrawJournal journal) {
+        if (journal != null && !secureSeeds) {
+            throw new IllegalStateException("Journaled draws must be seeded from SecureRandom");
+        }
+        this.journal = journal;
+    }
+
+    public boolean hasSecureSeeds() {
+        return secureSeeds;
+    }
+
+    /**
+     * Rebuilds a draw, in draw order, from its seed
+     */
+    public static int[] replay(long seed) {
+        int[] drawing = new int[DrawGenerator.DRAW_SIZE];
+        expand(seed, new Xoroshiro128PlusPlus(seed), new DrawGenerator(), drawing);
+        return drawing;
+    }
+
+    /**
+     * Turns a seed into its 20 balls in draw order: reseeds rng and resets the pool,
+     * so the seed alone determines the draw. This is the one place draws are made,
+     * and the fairness certifier runs it directly
+     */
+    public static void expand(long seed, Xoroshiro128PlusPlus rng, DrawGenerator generator, int[] out) {
+        rng.setSeed(seed);
+        generator.reset();
+        generator.draw(rng, DrawGenerator.DRAW_SIZE, out);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Allocation-free Keno number generator using a partial Fisher-Yates shuffle.
+ * Each instance owns its pool, so use one per thread (see forCurrentThread).
+ */
+public final class DrawGenerator {
+    public static final int POOL_SIZE = 80;
+    public static final int DRAW_SIZE = 20;
+
+    private static final ThreadLocal<DrawGenerator> LOCAL = ThreadLocal.withInitial(DrawGenerator::new);
+
+    /*
+     * The pool is always a permutation of 1-80. It is never reset between calls:
+     * a partial shuffle starting from any permutation picks every ordered
+     * k-tuple with probability 1 / (80 * 79 * ... * (80 - k + 1)), so each draw
+     * stays uniform and independent of the previous ones.
+     */
+    private final int[] pool = new int[POOL_SIZE];
+
+    // Constructor
+    public DrawGenerator() {
+        reset();
+    }
+
+    /**
+     * Puts the pool back in 1-80 order, so a seeded source replays the same draw
+     */
+    public void reset() {
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = i + 1;
+        }
+    }
+
+    /**
+     * Returns the generator owned by the calling thread
+     */
+    public static DrawGenerator forCurrentThread() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Picks count distinct numbers from 1-80 into out[0..count) in draw order
+     */
+    public void draw(RandomSource rng, int count, int[] out) {
+        checkCount(count);
+        for (int i = 0; i < count; i++) {
+            out[i] = swapIn(rng, i);
+        }
+    }
+
+    /**
+     * Picks count distinct numbers and writes them as a mask: maskOut[0] = lo, maskOut[1] = hi
+     */
+    public void drawMask(RandomSource rng, int count, long[] maskOut) {
+        checkCount(count);
+        long lo = 0L;
+        long hi = 0L;
+        for (int i = 0; i < count; i++) {
+            int n = swapIn(rng, i);
+            lo |= DrawMask.loBit(n);
+            hi |= DrawMask.hiBit(n);
+        }
+        maskOut[0] = lo;
+        maskOut[1] = hi;
+    }
+
+    // One Fisher-Yates step: moves a random remaining number into slot i
+    private int swapIn(RandomSource rng, int i) {
+        int j = i + rng.nextInt(POOL_SIZE - i);
+        int picked = pool[j];
+        pool[j] = pool[i];
+        pool[i] = picked;
+        return picked;
+    }
+
+    private static void checkCount(int count) {
+        if (count < 0 || count > POOL_SIZE) {
+            throw new IllegalArgumentException("count must be between 0 and " + POOL_SIZE + ": " + count);
+        }
+    }
+}
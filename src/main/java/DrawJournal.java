@@ -0,0 +1,221 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only journal of draws in a memory-mapped file.
+ *
+ * Every record is 32 bytes: sequence number, timestamp and high mask word packed
+ * together, low mask word, and the RNG seed of the draw. Record n lives at offset
+ * (n + 1) * 32, the first slot being the file header, so random access is offset
+ * arithmetic. Appends are committed in groups: once per group the new records are
+ * forced to disk, then the header count is written and forced on its own, so only
+ * committed records are visible after a restart. Segments are mapped when an append
+ * or read first reaches them.
+ */
+public class DrawJournal implements Closeable {
+    public static final int RECORD_SIZE = 32;
+    public static final int DEFAULT_SEGMENT_BYTES = 1 << 30;
+    public static final int DEFAULT_GROUP_SIZE = 256;
+
+    private static final long MAGIC = 0x4B454E4F4A524E4CL; // "KENOJRNL"
+    private static final int VERSION = 1;
+    private static final int COUNT_OFFSET = 16;
+
+    /**
+     * Receives records during a scan without allocating
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long seq, long timestampMillis, long lo, long hi, long seed);
+    }
+
+    private final FileChannel channel;
+    private final int segmentBytes;
+    private final int segmentShift;
+    private final int groupSize;
+    private final MappedByteBuffer header;
+    private volatile MappedByteBuffer[] segments;
+    private volatile long committed;
+    private long appended;
+    private boolean closed;
+
+    /**
+     * Opens or creates a journal with 1 GB segments and groups of 256 records
+     */
+    public static DrawJournal open(Path file) throws IOException {
+        return new DrawJournal(file, DEFAULT_SEGMENT_BYTES, DEFAULT_GROUP_SIZE);
+    }
+
+    // Constructor, segmentBytes must be a power of two and a multiple of RECORD_SIZE
+    public DrawJournal(Path file, int segmentBytes, int groupSize) throws IOException {
+        if (Integer.bitCount(segmentBytes) != 1 || segmentBytes < RECORD_SIZE) {
+            throw new IllegalArgumentException("segmentBytes must be a power of two >= " + RECORD_SIZE);
+        }
+        if (groupSize < 1) {
+            throw new IllegalArgumentException("groupSize must be positive: " + groupSize);
+        }
+        this.segmentBytes = segmentBytes;
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentBytes);
+        this.groupSize = groupSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segments = new MappedByteBuffer[0];
+
+        boolean fresh = channel.size() == 0;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, RECORD_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (fresh) {
+            header.putLong(0, MAGIC);
+            header.putInt(8, VERSION);
+            header.putInt(12, RECORD_SIZE);
+            header.putLong(COUNT_OFFSET, 0L);
+            header.force();
+        } else if (header.getLong(0) != MAGIC || header.getInt(12) != RECORD_SIZE) {
+            channel.close();
+            throw new IOException("Not a draw journal: " + file);
+        }
+        committed = header.getLong(COUNT_OFFSET);
+        appended = committed;
+    }
+
+    /**
+     * Appends a draw and returns its sequence number
+     */
+    public synchronized long append(long timestampMillis, long lo, long hi, long seed) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        long seq = appended;
+        long offset = (seq + 1) * RECORD_SIZE;
+        MappedByteBuffer buffer = segmentFor(offset);
+        int pos = (int) (offset & (segmentBytes - 1));
+        buffer.putLong(pos, seq);
+        buffer.putLong(pos + 8, (timestampMillis << 16) | (hi & DrawMask.HI_MASK));
+        buffer.putLong(pos + 16, lo);
+        buffer.putLong(pos + 24, seed);
+        appended = seq + 1;
+        if (appended - committed >= groupSize) {
+            commit();
+        }
+        return seq;
+    }
+
+    public long append(DrawMask draw, long seed) {
+        return append(System.currentTimeMillis(), draw.lo(), draw.hi(), seed);
+    }
+
+    /**
+     * Flushes every appended record to disk and makes it visible to readers and restarts
+     */
+    public synchronized void commit() {
+        if (appended == committed) {
+            return;
+        }
+        MappedByteBuffer[] mapped = segments;
+        int first = (int) (((committed + 1) * RECORD_SIZE) >>> segmentShift);
+        int last = (int) ((appended * RECORD_SIZE) >>> segmentShift);
+        // Records first: the count must never reach the disk ahead of them
+        for (int i = first; i <= last; i++) {
+            mapped[i].force();
+        }
+        header.putLong(COUNT_OFFSET, appended);
+        header.force();
+        committed = appended;
+    }
+
+    /**
+     * Number of committed records
+     */
+    public long size() {
+        return committed;
+    }
+
+    /*
+     * O(1) reads of committed records by sequence number
+     */
+
+    public DrawMask getMask(long seq) {
+        int pos = position(seq);
+        MappedByteBuffer buffer = segmentFor((seq + 1) * RECORD_SIZE);
+        return new DrawMask(buffer.getLong(pos + 16), buffer.getLong(pos + 8) & DrawMask.HI_MASK);
+    }
+
+    public long getTimestamp(long seq) {
+        int pos = position(seq);
+        return segmentFor((seq + 1) * RECORD_SIZE).getLong(pos + 8) >>> 16;
+    }
+
+    public long getSeed(long seq) {
+        int pos = position(seq);
+        return segmentFor((seq + 1) * RECORD_SIZE).getLong(pos + 24);
+    }
+
+    /**
+     * Visits records [from, to) in order, reading the mapped segments sequentially
+     */
+    public void scan(long from, long to, RecordVisitor visitor) {
+        long end = Math.min(to, committed);
+        for (long seq = Math.max(from, 0); seq < end; seq++) {
+            long offset = (seq + 1) * RECORD_SIZE;
+            MappedByteBuffer buffer = segmentFor(offset);
+            int pos = (int) (offset & (segmentBytes - 1));
+            long packed = buffer.getLong(pos + 8);
+            visitor.visit(buffer.getLong(pos), packed >>> 16, buffer.getLong(pos + 16),
+                packed & DrawMask.HI_MASK, buffer.getLong(pos + 24));
+        }
+    }
+
+    public void scan(RecordVisitor visitor) {
+        scan(0, committed, visitor);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        commit();
+        closed = true;
+        channel.close();
+    }
+
+    private int position(long seq) {
+        if (seq < 0 || seq >= committed) {
+            throw new IndexOutOfBoundsException("No committed draw " + seq + ", journal has " + committed);
+        }
+        return (int) (((seq + 1) * RECORD_SIZE) & (segmentBytes - 1));
+    }
+
+    private MappedByteBuffer segmentFor(long offset) {
+        int index = (int) (offset >>> segmentShift);
+        MappedByteBuffer[] mapped = segments;
+        if (index < mapped.length && mapped[index] != null) {
+            return mapped[index];
+        }
+        try {
+            return segment(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Maps the segment on first use, growing the file as needed. Readers get here too
+    private synchronized MappedByteBuffer segment(int index) throws IOException {
+        MappedByteBuffer[] mapped = segments;
+        if (index < mapped.length && mapped[index] != null) {
+            return mapped[index];
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(mapped, Math.max(mapped.length, index + 1));
+        grown[index] = channel.map(FileChannel.MapMode.READ_WRITE, (long) index * segmentBytes, segmentBytes);
+        grown[index].order(ByteOrder.LITTLE_ENDIAN);
+        segments = grown;
+        return grown[index];
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Receives every draw published by a DrawEngine
+ */
+@FunctionalInterface
+public interface DrawListener {
+
+    /**
+     * Called on the drawing thread, in sequence order. Keep it short
+     */
+    void onDraw(Draw draw);
+}
@@ -0,0 +1,179 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable 80-bit set of Keno numbers packed into two longs.
+ * Numbers 1-64 live in lo, numbers 65-80 in the low 16 bits of hi.
+ */
+public final class DrawMask {
+    public static final int MAX_NUMBER = 80;
+    public static final long HI_MASK = 0xFFFFL;
+    public static final DrawMask EMPTY = new DrawMask(0L, 0L);
+
+    private final long lo;
+    private final long hi;
+    private Set<Integer> view;
+
+    // Constructor
+    public DrawMask(long lo, long hi) {
+        this.lo = lo;
+        this.hi = hi & HI_MASK;
+    }
+
+    /*
+     * Bit helpers so hot loops can work on raw longs without creating masks
+     */
+
+    public static long loBit(int n) {
+        return n <= 64 ? 1L << (n - 1) : 0L;
+    }
+
+    public static long hiBit(int n) {
+        return n > 64 ? 1L << (n - 65) : 0L;
+    }
+
+    public static boolean contains(long lo, long hi, int n) {
+        if (n <= 64) {
+            return (lo & (1L << (n - 1))) != 0;
+        }
+        return (hi & (1L << (n - 65))) != 0;
+    }
+
+    public static int matchCount(long aLo, long aHi, long bLo, long bHi) {
+        return Long.bitCount(aLo & bLo) + Long.bitCount(aHi & bHi);
+    }
+
+    /**
+     * Builds a mask from the given numbers, ignoring anything outside 1-80
+     */
+    public static DrawMask of(int... numbers) {
+        long lo = 0L;
+        long hi = 0L;
+        for (int n : numbers) {
+            if (n >= 1 && n <= MAX_NUMBER) {
+                lo |= loBit(n);
+                hi |= hiBit(n);
+            }
+        }
+        return new DrawMask(lo, hi);
+    }
+
+    public static DrawMask of(Collection<Integer> numbers) {
+        long lo = 0L;
+        long hi = 0L;
+        for (int n : numbers) {
+            if (n >= 1 && n <= MAX_NUMBER) {
+                lo |= loBit(n);
+                hi |= hiBit(n);
+            }
+        }
+        return new DrawMask(lo, hi);
+    }
+
+    public long lo() {
+        return lo;
+    }
+
+    public long hi() {
+        return hi;
+    }
+
+    public boolean contains(int n) {
+        if (n < 1 || n > MAX_NUMBER) {
+            return false;
+        }
+        return contains(lo, hi, n);
+    }
+
+    public DrawMask with(int n) {
+        if (n < 1 || n > MAX_NUMBER) {
+            return this;
+        }
+        return new DrawMask(lo | loBit(n), hi | hiBit(n));
+    }
+
+    public DrawMask without(int n) {
+        if (n < 1 || n > MAX_NUMBER) {
+            return this;
+        }
+        return new DrawMask(lo & ~loBit(n), hi & ~hiBit(n));
+    }
+
+    public DrawMask and(DrawMask other) {
+        return new DrawMask(lo & other.lo, hi & other.hi);
+    }
+
+    public int size() {
+        return Long.bitCount(lo) + Long.bitCount(hi);
+    }
+
+    public boolean isEmpty() {
+        return lo == 0L && hi == 0L;
+    }
+
+    /**
+     * Counts numbers present in both masks without allocating
+     */
+    public int matchCount(DrawMask other) {
+        return matchCount(lo, hi, other.lo, other.hi);
+    }
+
+    /**
+     * Returns the numbers in ascending order
+     */
+    public int[] toArray() {
+        int[] numbers = new int[size()];
+        int i = 0;
+        long bits = lo;
+        while (bits != 0) {
+            numbers[i++] = Long.numberOfTrailingZeros(bits) + 1;
+            bits &= bits - 1;
+        }
+        bits = hi;
+        while (bits != 0) {
+            numbers[i++] = Long.numberOfTrailingZeros(bits) + 65;
+            bits &= bits - 1;
+        }
+        return numbers;
+    }
+
+    /**
+     * Read-only ascending view for the UI, built once per mask
+     */
+    public Set<Integer> toSet() {
+        Set<Integer> result = view;
+        if (result == null) {
+            Set<Integer> numbers = new LinkedHashSet<>();
+            for (int n : toArray()) {
+                numbers.add(n);
+            }
+            result = Collections.unmodifiableSet(numbers);
+            view = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DrawMask)) {
+            return false;
+        }
+        DrawMask other = (DrawMask) o;
+        return lo == other.lo && hi == other.hi;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(lo) * 31 + Long.hashCode(hi);
+    }
+
+    @Override
+    public String toString() {
+        return toSet().toString();
+    }
+}
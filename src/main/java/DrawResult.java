@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+/**
+ * Immutable outcome of one drawing for one ticket, computed once when the drawing is
+ * settled. Holds the draw, the match mask and count, the payout and sorted number
+ * arrays, so labels, grid colouring, earnings and history all read the same figures
+ * without recomputing them.
+ */
+public final class DrawResult {
+    private final Draw draw;
+    private final DrawMask selection;
+    private final DrawMask matchMask;
+    private final int matchCount;
+    private final int spots;
+    private final int wager;
+    private final long payoutCents;
+    private final int[] drawnNumbers;
+    private final int[] matchedNumbers;
+    private final String drawnText;
+    private final String matchedText;
+
+    // Constructor
+    public DrawResult(Draw draw, DrawMask selection, int spots, int wager, PaySchedule schedule) {
+        this.draw = draw;
+        this.selection = selection;
+        this.matchMask = selection.and(draw.getMask());
+        this.matchCount = matchMask.size();
+        this.spots = spots;
+        this.wager = wager;
+        this.payoutCents = schedule.getPayoutCents(spots, matchCount, wager);
+        this.drawnNumbers = draw.getMask().toArray();
+        this.matchedNumbers = matchMask.toArray();
+        this.drawnText = Arrays.toString(draw.getOrder());
+        this.matchedText = Arrays.toString(matchedNumbers);
+    }
+
+    public Draw getDraw() {
+        return draw;
+    }
+
+    public DrawMask getDrawMask() {
+        return draw.getMask();
+    }
+
+    public DrawMask getSelection() {
+        return selection;
+    }
+
+    public DrawMask getMatchMask() {
+        return matchMask;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public int getSpots() {
+        return spots;
+    }
+
+    public int getWager() {
+        return wager;
+    }
+
+    public long getPayoutCents() {
+        return payoutCents;
+    }
+
+    public boolean isMatched(int number) {
+        return matchMask.contains(number);
+    }
+
+    /**
+     * Drawn numbers in ascending order
+     */
+    public int[] getDrawnNumbers() {
+        return drawnNumbers.clone();
+    }
+
+    /**
+     * Matched numbers in ascending order
+     */
+    public int[] getMatchedNumbers() {
+        return matchedNumbers.clone();
+    }
+
+    /**
+     * Drawn numbers in draw order, formatted once for display
+     */
+    public String getDrawnText() {
+        return drawnText;
+    }
+
+    /**
+     * Matched numbers in ascending order, formatted once for display
+     */
+    public String getMatchedText() {
+        return matchedText;
+    }
+
+    @Override
+    public String toString() {
+        return "DrawResult{" + draw + ", matches=" + matchedText + ", payout=" + payoutCents + "}";
+    }
+}
@@ -0,0 +1,362 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Statistical certification that draws are uniform, run over 10^8-10^9 draws.
+ *
+ * Draws come from DrawEngine.expand, the same code that makes live draws, fed with
+ * seeds from the chosen RNG mode. The draw range is split across a fork/join pool like
+ * the Simulator; each leaf streams its draws into fixed-size counters which are merged,
+ * so memory does not grow with the draw count. Five chi-square tests are run on the
+ * totals: per-number frequency, pair co-occurrence, gaps between appearances of a
+ * number, ball by draw position, and overlap between consecutive draws.
+ */
+public class FairnessCertifier {
+    public static final String KEYSTORE_PROPERTY = "keno.cert.keystore";
+    public static final String STOREPASS_PROPERTY = "keno.cert.storepass";
+    public static final String ALIAS_PROPERTY = "keno.cert.alias";
+
+    private static final int LEAF_DRAWS = 1 << 20;
+    private static final int POOL = DrawGenerator.POOL_SIZE;
+    private static final int DRAWN = DrawGenerator.DRAW_SIZE;
+    private static final int SLOTS = POOL + 1;
+    // Gaps of this many draws or more share the last bucket
+    private static final int MAX_GAP = 40;
+
+    // Chance a number is drawn, and a given pair is drawn together, in one draw
+    private static final double P_NUMBER = (double) DRAWN / POOL;
+    private static final double P_PAIR = (double) DRAWN * (DRAWN - 1) / (POOL * (POOL - 1));
+    private static final int PAIRS = POOL * (POOL - 1) / 2;
+
+    /*
+     * Every draw holds exactly 20 numbers and 190 pairs, so the counts are constrained
+     * and a plain sum of (O - E)^2 / E is not chi-square. Projecting the deviations onto
+     * the irreducible components of the symmetric group fixes this: per number the
+     * deviations live in a 79-dimensional space with variance LAMBDA_NUMBER per draw
+     * along every direction, and the pair deviations not explained by the per-number
+     * ones live in a 3080-dimensional space with variance LAMBDA_PAIR. Both constants
+     * follow from one draw, since every draw has the same shape.
+     */
+    private static final double LAMBDA_NUMBER;
+    private static final double LAMBDA_PAIR;
+    private static final int PAIR_DF = PAIRS - POOL;
+
+    static {
+        double squares = DRAWN * (1 - P_NUMBER) * (1 - P_NUMBER) + (POOL - DRAWN) * P_NUMBER * P_NUMBER;
+        LAMBDA_NUMBER = squares / (POOL - 1);
+        long[] pairCounts = new long[SLOTS * SLOTS];
+        for (int a = 1; a <= DRAWN; a++) {
+            for (int b = a + 1; b <= DRAWN; b++) {
+                pairCounts[a * SLOTS + b] = 1;
+            }
+        }
+        LAMBDA_PAIR = pairResidual(pairCounts, 1) / PAIR_DF;
+    }
+
+    /**
+     * Runs the suite on all available cores with seeds from the live-draw RNG mode
+     */
+    public static FairnessReport run(long draws, long seed) {
+        return run(draws, seed, Runtime.getRuntime().availableProcessors(),
+            RngProvider.modeFor(RngProvider.Use.LIVE_DRAW));
+    }
+
+    public static FairnessReport run(long draws, long seed, int parallelism, RngProvider.Mode mode) {
+        if (draws < 2) {
+            throw new IllegalArgumentException("draws must be at least 2: " + draws);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            Counters totals = pool.invoke(new CertifyTask(draws, RngProvider.create(mode, seed)));
+            long elapsed = System.nanoTime() - start;
+            List<FairnessReport.TestResult> results = new ArrayList<>();
+            results.add(frequencyTest(totals, draws));
+            results.add(pairTest(totals, draws));
+            results.add(gapTest(totals));
+            results.add(positionTest(totals, draws));
+            results.add(serialTest(totals));
+            return new FairnessReport(draws, seed, mode, parallelism, elapsed, results);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Signing key from the PKCS12 keystore named by -Dkeno.cert.keystore (with
+     * -Dkeno.cert.storepass and -Dkeno.cert.alias), or a fresh RSA key pair when none is configured
+     */
+    public static KeyPair signingKey() throws IOException, GeneralSecurityException {
+        String path = System.getProperty(KEYSTORE_PROPERTY);
+        if (path == null) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        }
+        char[] password = System.getProperty(STOREPASS_PROPERTY, "").toCharArray();
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            store.load(in, password);
+        }
+        String alias = System.getProperty(ALIAS_PROPERTY, store.aliases().nextElement());
+        PrivateKey key = (PrivateKey) store.getKey(alias, password);
+        if (key == null) {
+            throw new GeneralSecurityException("No private key '" + alias + "' in " + path);
+        }
+        PublicKey publicKey = store.getCertificate(alias).getPublicKey();
+        return new KeyPair(publicKey, key);
+    }
+
+    /*
+     * Tests on the merged counters
+     */
+
+    private static FairnessReport.TestResult frequencyTest(Counters c, long draws) {
+        double expected = draws * P_NUMBER;
+        double squares = 0.0;
+        for (int n = 1; n <= POOL; n++) {
+            double d = c.numbers[n] - expected;
+            squares += d * d;
+        }
+        return FairnessReport.TestResult.of("Number frequency", squares / (draws * LAMBDA_NUMBER), POOL - 1);
+    }
+
+    private static FairnessReport.TestResult pairTest(Counters c, long draws) {
+        return FairnessReport.TestResult.of("Pair co-occurrence", pairResidual(c.pairs, draws) / (draws * LAMBDA_PAIR), PAIR_DF);
+    }
+
+    private static FairnessReport.TestResult gapTest(Counters c) {
+        long total = 0;
+        for (long count : c.gaps) {
+            total += count;
+        }
+        double[] expected = new double[MAX_GAP + 1];
+        for (int g = 1; g < MAX_GAP; g++) {
+            expected[g] = total * P_NUMBER * Math.pow(1 - P_NUMBER, g - 1);
+        }
+        expected[MAX_GAP] = total * Math.pow(1 - P_NUMBER, MAX_GAP - 1);
+        return goodnessOfFit("Gap distribution", c.gaps, expected, 1);
+    }
+
+    private static FairnessReport.TestResult positionTest(Counters c, long draws) {
+        double expected = (double) draws / POOL;
+        double statistic = 0.0;
+        for (int position = 0; position < DRAWN; position++) {
+            for (int n = 1; n <= POOL; n++) {
+                double d = c.positions[position * SLOTS + n] - expected;
+                statistic += d * d / expected;
+            }
+        }
+        return FairnessReport.TestResult.of("Ball by draw position", statistic, DRAWN * (POOL - 1));
+    }
+
+    private static FairnessReport.TestResult serialTest(Counters c) {
+        long total = 0;
+        for (long count : c.overlaps) {
+            total += count;
+        }
+        BigInteger all = KenoOdds.choose(POOL, DRAWN);
+        double[] expected = new double[DRAWN + 1];
+        for (int k = 0; k <= DRAWN; k++) {
+            BigInteger ways = KenoOdds.choose(DRAWN, k).multiply(KenoOdds.choose(POOL - DRAWN, DRAWN - k));
+            expected[k] = total * (ways.doubleValue() / all.doubleValue());
+        }
+        return goodnessOfFit("Consecutive draw overlap", c.overlaps, expected, 0);
+    }
+
+    // Pearson test over buckets [first, end), merging low buckets upward and high ones downward until each expects 5
+    private static FairnessReport.TestResult goodnessOfFit(String name, long[] observed, double[] expected, int first) {
+        List<double[]> cells = new ArrayList<>();
+        double o = 0.0;
+        double e = 0.0;
+        for (int i = first; i < observed.length; i++) {
+            o += observed[i];
+            e += expected[i];
+            if (e >= 5.0) {
+                cells.add(new double[]{o, e});
+                o = 0.0;
+                e = 0.0;
+            }
+        }
+        if (e > 0.0 || o > 0.0) {
+            if (cells.isEmpty()) {
+                cells.add(new double[]{o, e});
+            } else {
+                double[] last = cells.get(cells.size() - 1);
+                last[0] += o;
+                last[1] += e;
+            }
+        }
+        double statistic = 0.0;
+        for (double[] cell : cells) {
+            double d = cell[0] - cell[1];
+            statistic += d * d / cell[1];
+        }
+        return FairnessReport.TestResult.of(name, statistic, Math.max(1, cells.size() - 1));
+    }
+
+    // Squared length of the pair deviations after removing the part explained by per-number deviations
+    private static double pairResidual(long[] pairCounts, long draws) {
+        double expected = draws * P_PAIR;
+        double[] rows = new double[SLOTS];
+        double squares = 0.0;
+        for (int a = 1; a <= POOL; a++) {
+            for (int b = a + 1; b <= POOL; b++) {
+                double d = pairCounts[a * SLOTS + b] - expected;
+                squares += d * d;
+                rows[a] += d;
+                rows[b] += d;
+            }
+        }
+        // Projection onto the per-number space is (rows[a] + rows[b]) / (80 - 2), the pair total being exactly zero
+        double explained = 0.0;
+        for (int a = 1; a <= POOL; a++) {
+            for (int b = a + 1; b <= POOL; b++) {
+                double d = (rows[a] + rows[b]) / (POOL - 2);
+                explained += d * d;
+            }
+        }
+        return squares - explained;
+    }
+
+    /**
+     * Fixed-size counters for a run of consecutive draws
+     */
+    private static final class Counters {
+        final long[] numbers = new long[SLOTS];
+        final long[] pairs = new long[SLOTS * SLOTS];
+        final long[] positions = new long[DRAWN * SLOTS];
+        final long[] gaps = new long[MAX_GAP + 1];
+        final long[] overlaps = new long[DRAWN + 1];
+
+        void merge(Counters other) {
+            add(numbers, other.numbers);
+            add(pairs, other.pairs);
+            add(positions, other.positions);
+            add(gaps, other.gaps);
+            add(overlaps, other.overlaps);
+        }
+
+        private static void add(long[] into, long[] from) {
+            for (int i = 0; i < into.length; i++) {
+                into[i] += from[i];
+            }
+        }
+    }
+
+    private static class CertifyTask extends RecursiveTask<Counters> {
+        private static final long serialVersionUID = 1L;
+
+        private final long draws;
+        private final RandomStream seeds;
+
+        CertifyTask(long draws, RandomStream seeds) {
+            this.draws = draws;
+            this.seeds = seeds;
+        }
+
+        @Override
+        protected Counters compute() {
+            if (draws <= LEAF_DRAWS) {
+                return certify(draws, seeds);
+            }
+            long half = draws / 2;
+            CertifyTask left = new CertifyTask(half, seeds.split());
+            left.fork();
+            Counters right = new CertifyTask(draws - half, seeds).compute();
+            Counters merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+    }
+
+    // Gaps and overlaps only look within the leaf, losing one pair of draws per leaf boundary
+    private static Counters certify(long draws, RandomStream seeds) {
+        Counters c = new Counters();
+        Xoroshiro128PlusPlus rng = new Xoroshiro128PlusPlus(0L);
+        DrawGenerator generator = new DrawGenerator();
+        int[] balls = new int[DRAWN];
+        int[] sorted = new int[DRAWN];
+        long[] lastSeen = new long[SLOTS];
+        Arrays.fill(lastSeen, -1L);
+        long previousLo = 0L;
+        long previousHi = 0L;
+        for (long d = 0; d < draws; d++) {
+            DrawEngine.expand(seeds.nextLong(), rng, generator, balls);
+            long lo = 0L;
+            long hi = 0L;
+            for (int position = 0; position < DRAWN; position++) {
+                int n = balls[position];
+                lo |= DrawMask.loBit(n);
+                hi |= DrawMask.hiBit(n);
+                c.positions[position * SLOTS + n]++;
+            }
+            int count = 0;
+            for (long bits = lo; bits != 0; bits &= bits - 1) {
+                sorted[count++] = Long.numberOfTrailingZeros(bits) + 1;
+            }
+            for (long bits = hi; bits != 0; bits &= bits - 1) {
+                sorted[count++] = Long.numberOfTrailingZeros(bits) + 65;
+            }
+            for (int i = 0; i < DRAWN; i++) {
+                int a = sorted[i];
+                c.numbers[a]++;
+                int row = a * SLOTS;
+                for (int j = i + 1; j < DRAWN; j++) {
+                    c.pairs[row + sorted[j]]++;
+                }
+                if (lastSeen[a] >= 0) {
+                    c.gaps[(int) Math.min(d - lastSeen[a], MAX_GAP)]++;
+                }
+                lastSeen[a] = d;
+            }
+            if (d > 0) {
+                c.overlaps[DrawMask.matchCount(lo, hi, previousLo, previousHi)]++;
+            }
+            previousLo = lo;
+            previousHi = hi;
+        }
+        return c;
+    }
+
+    /**
+     * Usage: FairnessCertifier [draws] [seed] [threads] [splittable|xoroshiro|secure] [report file]
+     */
+    public static void main(String[] args) throws Exception {
+        long draws = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        RngProvider.Mode mode = args.length > 3
+            ? RngProvider.Mode.valueOf(args[3].toUpperCase(Locale.ROOT))
+            : RngProvider.modeFor(RngProvider.Use.LIVE_DRAW);
+        System.out.println("Certifying " + draws + " draws on " + threads + " threads (" + mode + ")");
+        FairnessReport report = run(draws, seed, threads, mode);
+        String signed = report.sign(signingKey());
+        if (args.length > 4) {
+            Path out = Paths.get(args[4]);
+            Files.write(out, signed.getBytes(StandardCharsets.UTF_8));
+            System.out.println("Signed report written to " + out);
+        }
+        System.out.print(signed);
+        if (!report.passed()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a fairness certification run, with a signed text form for regulators.
+ *
+ * The signed document is the plain-text report followed by a signature block holding
+ * the SHA256withRSA signature of the report bytes, the signer's public key and its
+ * SHA-256 fingerprint. verify() checks a document against a trusted key, or against
+ * the embedded key when the fingerprint has been checked some other way.
+ */
+public class FairnessReport {
+    public static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+    // A test fails when its p-value falls outside [ALPHA, 1 - ALPHA]: too poor a fit or too good a one
+    public static final double ALPHA = 1e-4;
+
+    private static final String BEGIN = "-----BEGIN KENO SIGNATURE-----\n";
+    private static final String END = "-----END KENO SIGNATURE-----\n";
+
+    /**
+     * One chi-square test
+     */
+    public static final class TestResult {
+        private final String name;
+        private final double statistic;
+        private final int degreesOfFreedom;
+        private final double pValue;
+
+        // Constructor
+        TestResult(String name, double statistic, int degreesOfFreedom, double pValue) {
+            this.name = name;
+            this.statistic = statistic;
+            this.degreesOfFreedom = degreesOfFreedom;
+            this.pValue = pValue;
+        }
+
+        static TestResult of(String name, double statistic, int degreesOfFreedom) {
+            return new TestResult(name, statistic, degreesOfFreedom, chiSquarePValue(statistic, degreesOfFreedom));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getStatistic() {
+            return statistic;
+        }
+
+        public int getDegreesOfFreedom() {
+            return degreesOfFreedom;
+        }
+
+        public double getPValue() {
+            return pValue;
+        }
+
+        public boolean passed() {
+            return pValue >= ALPHA && pValue <= 1 - ALPHA;
+        }
+    }
+
+    private final long draws;
+    private final long seed;
+    private final RngProvider.Mode mode;
+    private final int parallelism;
+    private final long elapsedNanos;
+    private final List<TestResult> results;
+
+    // Constructor
+    public FairnessReport(long draws, long seed, RngProvider.Mode mode, int parallelism,
+                          long elapsedNanos, List<TestResult> results) {
+        this.draws = draws;
+        this.seed = seed;
+        this.mode = mode;
+        this.parallelism = parallelism;
+        this.elapsedNanos = elapsedNanos;
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public List<TestResult> getResults() {
+        return results;
+    }
+
+    public boolean passed() {
+        for (TestResult result : results) {
+            if (!result.passed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Plain-text report, the part covered by the signature
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Keno draw fairness certification\n");
+        sb.append(String.format("Draws: %,d  RNG mode: %s  Seed: %s  Threads: %d  Time: %.1f s%n",
+            draws, mode, mode == RngProvider.Mode.SECURE ? "n/a" : Long.toString(seed), parallelism,
+            elapsedNanos / 1e9));
+        sb.append(String.format("Pass band: %.0e <= p <= 1 - %.0e%n%n", ALPHA, ALPHA));
+        sb.append(String.format("%-26s %14s %6s %10s  %s%n", "Test", "Chi-square", "df", "p-value", "Result"));
+        for (TestResult r : results) {
+            sb.append(String.format("%-26s %14.2f %6d %10.4f  %s%n", r.getName(), r.getStatistic(),
+                r.getDegreesOfFreedom(), r.getPValue(), r.passed() ? "PASS" : "FAIL"));
+        }
+        sb.append(String.format("%nOverall: %s%n", passed() ? "PASS" : "FAIL"));
+        return sb.toString();
+    }
+
+    /**
+     * The report followed by a signature block
+     */
+    public String sign(KeyPair key) throws GeneralSecurityException {
+        String text = report();
+        Signature signer = Signature.getInstance(SIGNATURE_ALGORITHM);
+        signer.initSign(key.getPrivate());
+        signer.update(text.getBytes(StandardCharsets.UTF_8));
+        Base64.Encoder base64 = Base64.getEncoder();
+        return text + BEGIN
+            + "Algorithm: " + SIGNATURE_ALGORITHM + "\n"
+            + "Key-SHA256: " + fingerprint(key.getPublic()) + "\n"
+            + "Public-Key: " + base64.encodeToString(key.getPublic().getEncoded()) + "\n"
+            + "Signature: " + base64.encodeToString(signer.sign()) + "\n"
+            + END;
+    }
+
+    /**
+     * Checks a signed document. With a null trusted key the embedded key is used
+     */
+    public static boolean verify(String document, PublicKey trusted) throws GeneralSecurityException {
+        int begin = document.lastIndexOf(BEGIN);
+        if (begin < 0 || !document.endsWith(END)) {
+            return false;
+        }
+        String text = document.substring(0, begin);
+        String publicKey = null;
+        String signature = null;
+        for (String line : document.substring(begin + BEGIN.length(), document.length() - END.length()).split("\n")) {
+            if (line.startsWith("Public-Key: ")) {
+                publicKey = line.substring("Public-Key: ".length());
+            } else if (line.startsWith("Signature: ")) {
+                signature = line.substring("Signature: ".length());
+            }
+        }
+        if (publicKey == null || signature == null) {
+            return false;
+        }
+        Base64.Decoder base64 = Base64.getDecoder();
+        PublicKey key = trusted;
+        if (key == null) {
+            key = KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(base64.decode(publicKey)));
+        }
+        Signature verifier = Signature.getInstance(SIGNATURE_ALGORITHM);
+        verifier.initVerify(key);
+        verifier.update(text.getBytes(StandardCharsets.UTF_8));
+        return verifier.verify(base64.decode(signature));
+    }
+
+    public static String fingerprint(PublicKey key) throws GeneralSecurityException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getEncoded());
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /*
+     * Upper tail of the chi-square distribution, Q(df / 2, x / 2), from the regularized
+     * incomplete gamma function: a series below a + 1, a continued fraction above it.
+     */
+
+    public static double chiSquarePValue(double statistic, int degreesOfFreedom) {
+        double a = degreesOfFreedom / 2.0;
+        double x = statistic / 2.0;
+        if (x <= 0) {
+            return 1.0;
+        }
+        double logPrefix = -x + a * Math.log(x) - logGamma(a);
+        if (x < a + 1) {
+            double term = 1.0 / a;
+            double sum = term;
+            for (int n = 1; n < 100_000; n++) {
+                term *= x / (a + n);
+                sum += term;
+                if (term < sum * 1e-15) {
+                    break;
+                }
+            }
+            return Math.max(0.0, 1.0 - sum * Math.exp(logPrefix));
+        }
+        double tiny = 1e-300;
+        double b = x + 1 - a;
+        double c = 1.0 / tiny;
+        double d = 1.0 / b;
+        double h = d;
+        for (int i = 1; i < 100_000; i++) {
+            double an = -i * (i - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < tiny) {
+                d = tiny;
+            }
+            c = b + an / c;
+            if (Math.abs(c) < tiny) {
+                c = tiny;
+            }
+            d = 1.0 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1.0) < 1e-15) {
+                break;
+            }
+        }
+        return Math.exp(logPrefix) * h;
+    }
+
+    // Lanczos approximation, g = 7
+    private static double logGamma(double x) {
+        double[] coefficients = {0.99999999999980993, 676.5203681218851, -1259.1392167224028,
+            771.32342877765313, -176.61502916214059, 12.507343278686905,
+            -0.13857109526572012, 9.9843695780195716e-6, 1.5056327351493116e-7};
+        x -= 1;
+        double sum = coefficients[0];
+        for (int i = 1; i < coefficients.length; i++) {
+            sum += coefficients[i] / (x + i);
+        }
+        double t = x + 7.5;
+        return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(sum);
+    }
+}
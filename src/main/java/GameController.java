@@ -1,5 +1,7 @@
 
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Controls the game logic and state management for the Keno game
@@ -7,32 +9,63 @@ import java.util.*;
 public class GameController {
     private int spotsToPlay = 0;       
     private int drawingsToPlay = 0;   
+    private int wager = PaySchedule.MIN_WAGER;
     private boolean drawingsStarted = false;
 
-    private final Set<Integer> selectedNumbers = new LinkedHashSet<>(); 
-    private final Random rng = new Random();
-
-    private static final Map<Integer, Double> ODDS_MAP = new HashMap<>();
+    private DrawMask selection = DrawMask.EMPTY;
+    private final RandomStream source = RngProvider.forUse(RngProvider.Use.QUICK_PICK);
+    private final DrawEngine engine;
+    private final DrawBuffer drawBuffer;
+    // A shared engine is driven by the game, not by this player, so its draws are queued as published
+    private final boolean sharedEngine;
+    private final BlockingQueue<Draw> publishedDraws = new LinkedBlockingQueue<>();
+    private SessionSubscription subscription;
+    private final List<BallListener> ballListeners = new ArrayList<>();
+    private int revealPosition;
+    private int revealMatches;
+    private final DrawGenerator generator = new DrawGenerator();
+    private final long[] maskBuffer = new long[2];
 
     /*
-    * https://nclottery.com/KenoHow
-    */
-    
-    static {
-        ODDS_MAP.put(1, 4.00);
-        ODDS_MAP.put(4, 3.86);
-        ODDS_MAP.put(8, 9.97);
-        ODDS_MAP.put(10, 9.05);
-    }
-
+     * Only the current draw is kept, later draws are generated when nextDrawing() asks for them,
+     * so a session of any length uses the same memory
+     */
     private ArrayList<Integer> currentDrawing;
+    private Draw currentDraw;
+    private DrawMask currentMask;
     private int currentDrawingIndex;
-    private ArrayList<ArrayList<Integer>> allDrawings;
+    private int sessionDrawings;
+    private int settledIndex = -1;
+    private DrawResult currentResult;
+    private long sessionEarnings;
 
-    // Constructor
+    // Constructor, draws come from a private engine
      public GameController() {
+        this(new DrawEngine(), null, false);
+    }
+
+    /**
+     * Creates a player controller that plays the draws a shared engine publishes.
+     * It never runs draws itself: every player on the engine sees the same draws,
+     * and prepareDrawings / nextDrawing wait until the engine publishes the next one
+     */
+    public GameController(DrawEngine engine) {
+        this(engine, null, true);
+    }
+
+    /**
+     * Creates a player controller that takes pre-generated draws from a buffer
+     */
+    public GameController(DrawBuffer buffer) {
+        this(buffer.getEngine(), buffer, false);
+    }
+
+    private GameController(DrawEngine engine, DrawBuffer buffer, boolean sharedEngine) {
+        this.engine = engine;
+        this.drawBuffer = buffer;
+        this.sharedEngine = sharedEngine;
         currentDrawing = new ArrayList<>();
-        allDrawings = new ArrayList<>();
+        currentMask = DrawMask.EMPTY;
     }
 
     /**
@@ -46,7 +79,7 @@ public class GameController {
 
         if (spots == 1 || spots == 4 || spots == 8 || spots == 10) {
             spotsToPlay = spots;
-            selectedNumbers.clear();
+            selection = DrawMask.EMPTY;
             return true;
         }
         return false;
@@ -57,12 +90,12 @@ public class GameController {
     }
 
     /**
-     * Sets the number of drawings to play (1-4)
+     * Sets the number of consecutive drawings to play (any positive count)
      * Returns true if valid drawings number and game not started
      */
     public boolean setNumberOfDrawings(int d) {
         if (drawingsStarted) return false;
-        if (d >= 1 && d <= 4) {
+        if (d >= 1) {
             drawingsToPlay = d;
             return true;
         }
@@ -73,6 +106,22 @@ public class GameController {
         return drawingsToPlay; 
     }
 
+    /**
+     * Sets the wager per drawing in dollars ($1-$10)
+     * Returns true if valid wager and game not started
+     */
+    public boolean setWager(int dollars) {
+        if (drawingsStarted || !PaySchedule.isValidWager(dollars)) {
+            return false;
+        }
+        wager = dollars;
+        return true;
+    }
+
+    public int getWager() {
+        return wager;
+    }
+
 
     /**
      * Selects/deselects a number on the grid
@@ -89,20 +138,27 @@ public class GameController {
             return false;
         }
 
-        if (selectedNumbers.contains(n)) {
-            selectedNumbers.remove(n);
+        if (selection.contains(n)) {
+            selection = selection.without(n);
             return true;
         } else {
-            if (selectedNumbers.size() >= spotsToPlay){
+            if (selection.size() >= spotsToPlay){
                 return false;
             }
-            selectedNumbers.add(n);
+            selection = selection.with(n);
             return true;
         }
     }
 
+    /**
+     * Read-only view of the selection in ascending order
+     */
     public Set<Integer> getSelected() {
-        return Collections.unmodifiableSet(selectedNumbers);
+        return selection.toSet();
+    }
+
+    public DrawMask getSelectionMask() {
+        return selection;
     }
 
     /**
@@ -113,20 +169,13 @@ public class GameController {
         if (drawingsStarted || spotsToPlay == 0){
             return;
         }
-        selectedNumbers.clear();
-        ArrayList<Integer> pool = new ArrayList<>();
-        for (int i = 1; i <= 80; i++){
-            pool.add(i);
-        }
-        Collections.shuffle(pool, rng);
-        for (int i = 0; i < spotsToPlay; i++){
-            selectedNumbers.add(pool.get(i));
-        }
+        generator.drawMask(source, spotsToPlay, maskBuffer);
+        selection = new DrawMask(maskBuffer[0], maskBuffer[1]);
     }
 
     // Resets the grid
     public void resetGrid() {
-        selectedNumbers.clear();
+        selection = DrawMask.EMPTY;
     }
 
     /**
@@ -150,42 +199,182 @@ public class GameController {
     }
 
     /**
-     * Generates all drawings for the current session
+     * Starts a new session and generates its first drawing
      */
     public void prepareDrawings() {
-        allDrawings.clear();
-        for(int i = 0; i < drawingsToPlay; i++) {
-            ArrayList<Integer> drawing = new ArrayList<>();
-            ArrayList<Integer> pool = new ArrayList<>();
-            for(int n = 1; n <= 80; n++) {
-                pool.add(n);
-            }
-            Collections.shuffle(pool, rng);
-            for(int j = 0; j < 20; j++) {
-                drawing.add(pool.get(j));
-            }
-            allDrawings.add(drawing);
-        }
+        sessionDrawings = drawingsToPlay;
         currentDrawingIndex = 0;
-        if(!allDrawings.isEmpty()) {
-            currentDrawing = allDrawings.get(0);
+        settledIndex = -1;
+        currentResult = null;
+        sessionEarnings = 0;
+        if (sharedEngine) {
+            subscribe(sessionDrawings);
+        }
+        if (sessionDrawings > 0) {
+            generateDrawing();
         } else {
+            currentDraw = null;
+            currentMask = DrawMask.EMPTY;
             currentDrawing = new ArrayList<>();
         }
     }
 
+    // Takes the next immutable draw: from the buffer, from the shared engine's broadcast, or run on a private engine
+    private void generateDrawing() {
+        if (drawBuffer != null) {
+            currentDraw = drawBuffer.take();
+        } else if (sharedEngine) {
+            currentDraw = awaitPublishedDraw();
+        } else {
+            currentDraw = engine.runDraw();
+        }
+        currentResult = null;
+        currentMask = currentDraw.getMask();
+        currentDrawing = null;
+        revealPosition = 0;
+        revealMatches = 0;
+    }
+
+    // Queues the next count draws the shared engine publishes for this session, replacing any earlier session
+    private void subscribe(int count) {
+        if (subscription != null) {
+            engine.unsubscribe(subscription);
+        }
+        publishedDraws.clear();
+        subscription = null;
+        if (count > 0) {
+            subscription = new SessionSubscription(count);
+            engine.subscribe(subscription);
+        }
+    }
+
+    private Draw awaitPublishedDraw() {
+        try {
+            return publishedDraws.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the next draw", e);
+        }
+    }
+
+    // Runs on the drawing thread; drops itself once the session has all its draws
+    private class SessionSubscription implements DrawListener {
+        private int remaining;
+
+        SessionSubscription(int remaining) {
+            this.remaining = remaining;
+        }
+
+        @Override
+        public void onDraw(Draw draw) {
+            if (remaining > 0) {
+                publishedDraws.add(draw);
+                if (--remaining == 0) {
+                    engine.unsubscribe(this);
+                }
+            }
+        }
+    }
+
+    public void addBallListener(BallListener listener) {
+        ballListeners.add(listener);
+    }
+
+    public void removeBallListener(BallListener listener) {
+        ballListeners.remove(listener);
+    }
+
+    /**
+     * Reveals the next ball of the current drawing to every ball listener
+     * Returns false once all 20 balls have been revealed
+     */
+    public boolean revealNextBall() {
+        if (currentDraw == null || revealPosition >= currentDraw.getBallCount()) {
+            return false;
+        }
+        int position = revealPosition++;
+        int ball = currentDraw.getBall(position);
+        if (selection.contains(ball)) {
+            revealMatches++;
+        }
+        long payout = getPayoutCents(revealMatches);
+        for (int i = 0; i < ballListeners.size(); i++) {
+            ballListeners.get(i).onBall(ball, position, revealMatches, payout);
+        }
+        return true;
+    }
+
+    /**
+     * Reveals every remaining ball of the current drawing
+     */
+    public void revealAll() {
+        while (revealNextBall()) {
+            // listeners do the work
+        }
+    }
+
+    public int getRevealedCount() {
+        return revealPosition;
+    }
+
+    /**
+     * Rebuilds a drawing, in draw order, from the seed stored in the journal
+     */
+    public static int[] replayDrawing(long seed) {
+        return DrawEngine.replay(seed);
+    }
+
+    /**
+     * Journals every drawing generated from now on, null turns journaling off.
+     * Throws IllegalStateException unless live draws are seeded from SecureRandom
+     */
+    public void setJournal(DrawJournal journal) {
+        engine.setJournal(journal);
+    }
+
+    public DrawEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Buffer the draws come from, null when they are generated on demand
+     */
+    public DrawBuffer getDrawBuffer() {
+        return drawBuffer;
+    }
+
+    /**
+     * Immutable current draw, null before the first drawing
+     */
+    public Draw getCurrentDrawRecord() {
+        return currentDraw;
+    }
+
+    /**
+     * Current drawing in draw order, the list is built on first request
+     */
     public ArrayList<Integer> getCurrentDraw() {
+        if (currentDrawing == null) {
+            currentDrawing = new ArrayList<>(DrawGenerator.DRAW_SIZE);
+            for (int i = 0; i < currentDraw.getBallCount(); i++) {
+                currentDrawing.add(currentDraw.getBall(i));
+            }
+        }
         return currentDrawing;
     }
 
+    public DrawMask getCurrentDrawMask() {
+        return currentMask;
+    }
+
     /**
      * Advances to next drawing if available
      * Returns true if there was another drawing
      */
     public boolean nextDrawing() {
-        currentDrawingIndex++;
-        if(currentDrawingIndex < allDrawings.size()) {
-            currentDrawing = allDrawings.get(currentDrawingIndex);
+        if(currentDrawingIndex + 1 < sessionDrawings) {
+            currentDrawingIndex++;
+            generateDrawing();
             return true;
         }
         return false;
@@ -195,20 +384,27 @@ public class GameController {
      * Returns set of numbers that match between selection and current draw
      */
     public Set<Integer> getMatches() {
-        Set<Integer> matched = new HashSet<>(selectedNumbers);
-        matched.retainAll(new HashSet<>(currentDrawing));
-        return matched;
+        if (currentResult != null) {
+            return currentResult.getMatchMask().toSet();
+        }
+        return selection.and(currentMask).toSet();
+    }
+
+    /**
+     * Number of matches for the current draw, computed with AND plus popcount
+     */
+    public int getMatchCount() {
+        if (currentResult != null) {
+            return currentResult.getMatchCount();
+        }
+        return selection.matchCount(currentMask);
     }
 
     /*
-     * Returns the odds based on spots selected
+     * Returns the exact odds of winning anything based on spots selected
      */
     public double getOddsForSpots() {
-        Double odds = ODDS_MAP.get(spotsToPlay);
-        if (odds == null) {
-            return 0.0;
-        }
-        return odds;
+        return KenoOdds.odds(spotsToPlay);
     }
 
     public int getCurrentDrawingNumber() {
@@ -216,11 +412,63 @@ public class GameController {
     }
 
     public int getTotalDrawings() {
-        return allDrawings.size();
+        return sessionDrawings;
+    }
+
+    /**
+     * Payout in cents for the given matches at the current wager
+     */
+    public long getPayoutCents(int matches) {
+        return PayoutTable.getSchedule().getPayoutCents(spotsToPlay, matches, wager);
+    }
+
+    /**
+     * Pays out the current drawing once and adds it to the session total
+     * Returns the payout in cents, calling it again for the same drawing returns it without adding twice
+     */
+    public long settleCurrentDrawing() {
+        return settleDrawing().getPayoutCents();
+    }
+
+    /**
+     * Settles the current drawing and returns its result, built only the first time
+     */
+    public DrawResult settleDrawing() {
+        if (settledIndex != currentDrawingIndex || currentResult == null) {
+            currentResult = new DrawResult(currentDraw, selection, spotsToPlay, wager, PayoutTable.getSchedule());
+            settledIndex = currentDrawingIndex;
+            sessionEarnings += currentResult.getPayoutCents();
+        }
+        return currentResult;
+    }
+
+    /**
+     * Result of the current drawing once settled, null before that
+     */
+    public DrawResult getCurrentResult() {
+        return currentResult;
+    }
+
+    /**
+     * Running total for the session, in cents
+     */
+    public long getSessionEarnings() {
+        return sessionEarnings;
+    }
+
+    /**
+     * Hot/cold statistics of every draw the engine has published, the same instance
+     * for all controllers on a shared engine
+     */
+    public NumberStats getStatistics() {
+        return engine.getStatistics();
     }
+
     /**
      * Calculates payout based on spots played and matches, uses PayoutTable class for values
+     * @deprecated whole dollars at a $1 wager, fractional payouts are truncated; use getPayoutCents
      */
+    @Deprecated
     public int getPayout(int matches) {
         return PayoutTable.getPayout(spotsToPlay, matches);
     }
@@ -26,23 +26,26 @@ public class GameScene extends BorderPane {
     private Button playBtnField;                      // PLAY! button
     private Button menuBtn;
     private Button themeBtn;
+    private Runnable gridRestyler;
     private final List<StackPane> spotOptionPanes = new ArrayList<>();     // spot option panes (1,4,8,10)
     private final List<StackPane> drawingOptionPanes = new ArrayList<>();  // drawing option panes (1..4)
     private Label alertLabel;                         // styled alert label (same style as drawingsLabel)
     private Label earnedLabel;
+    private final Ledger.Account terminal;
 
-    // GameScene Constructor
-    public GameScene(Stage stage) {
+    // GameScene Constructor, terminal is the stage's account and outlives the scene
+    public GameScene(Stage stage, Ledger.Account terminal) {
         this.primaryStage = stage;
+        this.terminal = terminal;
         setTop(createTopBar());
         setCenter(createCenter());
         setBottom(createBottomBar());
         SceneManager.updateSceneTheme(this);
-        GameController controller = new GameController();
-        new KenoGame(this, controller);
+        GameController controller = new GameController(DrawBuffer.shared());
+        new KenoGame(this, controller, terminal);
         
         menuBtn.setOnAction(e -> {
-            MenuScene menuScene = new MenuScene(primaryStage);
+            MenuScene menuScene = new MenuScene(primaryStage, terminal);
             SceneManager.updateMenuTheme(menuScene);
             Scene scene = new Scene(menuScene, 900, 700);
             primaryStage.setScene(scene);
@@ -357,6 +360,10 @@ public class GameScene extends BorderPane {
     * Updates the number buttons to current theme
     */
     public void updateButtonsTheme() {
+        if (gridRestyler != null) {
+            gridRestyler.run();
+            return;
+        }
         for (Button btn : kenoNumberButtons.values()) {
             if (!btn.getBackground().getFills().isEmpty()) {
                 Color currentFill = (Color) btn.getBackground().getFills().get(0).getFill();
@@ -396,6 +403,7 @@ public class GameScene extends BorderPane {
     */
 
     public Map<Integer, Button> getKenoNumberButtons() { return kenoNumberButtons; }
+    public void setGridRestyler(Runnable restyler) { this.gridRestyler = restyler; }
     public Button getRandomButton() { return randomBtnField; }
     public Button getPlayButton() { return playBtnField; }
     public Button getThemeButton() {return themeBtn;}
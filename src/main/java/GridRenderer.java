@@ -0,0 +1,99 @@
+import java.util.Map;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.Border;
+import javafx.scene.layout.BorderStroke;
+import javafx.scene.layout.BorderStrokeStyle;
+import javafx.scene.layout.BorderWidths;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.paint.Color;
+
+/**
+ * Paints the number grid from a GridState, touching only cells whose state changed.
+ *
+ * Every cell state has one Background, text colour and Border per theme, built the
+ * first time that theme is shown and shared by all 80 buttons, so a drawing animation
+ * allocates nothing. A theme change marks the whole grid dirty on the next flush.
+ */
+public class GridRenderer {
+    private static final CornerRadii RADII = new CornerRadii(4);
+    private static final Border HIGHLIGHT_BORDER = new Border(new BorderStroke(
+        Color.WHITE, BorderStrokeStyle.SOLID, RADII, new BorderWidths(2)));
+
+    /**
+     * Shared look of one cell state
+     */
+    private static final class Style {
+        final Background background;
+        final Color text;
+        final Border border;
+
+        // Constructor
+        Style(Color fill, Color text, boolean highlighted) {
+            this.background = new Background(new BackgroundFill(fill, RADII, Insets.EMPTY));
+            this.text = text;
+            this.border = highlighted ? HIGHLIGHT_BORDER : null;
+        }
+    }
+
+    // Brown and blue style sets, indexed by cell state
+    private static final Style[][] STYLES = new Style[2][];
+
+    private final Button[] cells = new Button[DrawMask.MAX_NUMBER + 1];
+    private final GridState state = new GridState();
+    private int appliedTheme = -1;
+
+    // Constructor
+    public GridRenderer(Map<Integer, Button> buttons) {
+        for (Map.Entry<Integer, Button> entry : buttons.entrySet()) {
+            cells[entry.getKey()] = entry.getValue();
+        }
+    }
+
+    public GridState getState() {
+        return state;
+    }
+
+    public Button getButton(int n) {
+        return cells[n];
+    }
+
+    /**
+     * Applies every pending state change to its button
+     */
+    public void flush() {
+        int theme = SceneManager.isBlueTheme() ? 1 : 0;
+        if (theme != appliedTheme) {
+            appliedTheme = theme;
+            state.markAllDirty();
+        }
+        Style[] styles = styles(theme);
+        for (int n = state.pollDirty(); n != 0; n = state.pollDirty()) {
+            Button button = cells[n];
+            if (button != null) {
+                Style style = styles[state.get(n)];
+                button.setBackground(style.background);
+                button.setTextFill(style.text);
+                button.setBorder(style.border);
+            }
+        }
+    }
+
+    // Built from the SceneManager palette while that theme is the active one
+    private static Style[] styles(int theme) {
+        if (STYLES[theme] == null) {
+            Style[] styles = new Style[GridState.STATE_COUNT];
+            for (int highlight = 0; highlight <= GridState.HIGHLIGHTED; highlight += GridState.HIGHLIGHTED) {
+                boolean on = highlight != 0;
+                styles[GridState.IDLE | highlight] = new Style(SceneManager.getButtonColor(), Color.WHITE, on);
+                styles[GridState.SELECTED | highlight] = new Style(SceneManager.getSelectedColor(), Color.BLACK, on);
+                styles[GridState.DRAWN | highlight] = new Style(Color.RED, Color.WHITE, on);
+                styles[GridState.MATCHED | highlight] = new Style(Color.GREEN, Color.WHITE, on);
+            }
+            STYLES[theme] = styles;
+        }
+        return STYLES[theme];
+    }
+}
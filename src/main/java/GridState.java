@@ -0,0 +1,96 @@
+/**
+ * Visual state of the 80 number cells, with a dirty mask of cells whose state changed.
+ *
+ * Each cell is one of IDLE, SELECTED, DRAWN or MATCHED, optionally flagged HIGHLIGHTED
+ * for the latest ball. Setting a cell to the state it already has is free; anything
+ * else marks it dirty until a renderer polls it, so a redraw touches only the cells
+ * that actually changed. Dirty bits use the DrawMask layout.
+ */
+public class GridState {
+    public static final int IDLE = 0;
+    public static final int SELECTED = 1;
+    public static final int DRAWN = 2;
+    public static final int MATCHED = 3;
+    // Flag on top of a state for the most recently revealed ball
+    public static final int HIGHLIGHTED = 4;
+    public static final int STATE_COUNT = 8;
+
+    private final byte[] states = new byte[DrawMask.MAX_NUMBER + 1];
+    private long dirtyLo;
+    private long dirtyHi;
+    private int highlighted;
+
+    public int get(int n) {
+        return states[n];
+    }
+
+    /**
+     * Sets a cell's state, returns true if it changed
+     */
+    public boolean set(int n, int state) {
+        if (states[n] == state) {
+            return false;
+        }
+        states[n] = (byte) state;
+        dirtyLo |= DrawMask.loBit(n);
+        dirtyHi |= DrawMask.hiBit(n);
+        return true;
+    }
+
+    /**
+     * Shows the ticket only: selected cells SELECTED, everything else IDLE
+     */
+    public void showSelection(DrawMask selection) {
+        long lo = selection.lo();
+        long hi = selection.hi();
+        for (int n = 1; n <= DrawMask.MAX_NUMBER; n++) {
+            set(n, DrawMask.contains(lo, hi, n) ? SELECTED : IDLE);
+        }
+        highlighted = 0;
+    }
+
+    /**
+     * Marks a revealed ball and moves the highlight onto it
+     */
+    public void reveal(int ball, boolean matched) {
+        clearHighlight();
+        set(ball, (matched ? MATCHED : DRAWN) | HIGHLIGHTED);
+        highlighted = ball;
+    }
+
+    public void clearHighlight() {
+        if (highlighted != 0) {
+            set(highlighted, states[highlighted] & ~HIGHLIGHTED);
+            highlighted = 0;
+        }
+    }
+
+    /**
+     * Marks every cell dirty, for when the styles themselves change
+     */
+    public void markAllDirty() {
+        dirtyLo = -1L;
+        dirtyHi = DrawMask.HI_MASK;
+    }
+
+    public int getDirtyCount() {
+        return Long.bitCount(dirtyLo) + Long.bitCount(dirtyHi);
+    }
+
+    /**
+     * Removes and returns the lowest dirty cell, 0 when none are left
+     */
+    public int pollDirty() {
+        if (dirtyLo != 0) {
+            int bit = Long.numberOfTrailingZeros(dirtyLo);
+            dirtyLo &= dirtyLo - 1;
+            return bit + 1;
+        }
+        if (dirtyHi != 0) {
+            int bit = Long.numberOfTrailingZeros(dirtyHi);
+            dirtyHi &= dirtyHi - 1;
+            return bit + 65;
+        }
+        return 0;
+    }
+}
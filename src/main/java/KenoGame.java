@@ -10,13 +10,6 @@ import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.CornerRadii;
 import javafx.geometry.Insets;
 import javafx.scene.control.ContentDisplay;
-import javafx.animation.PauseTransition;
-import javafx.animation.SequentialTransition;
-import javafx.util.Duration;
-import javafx.scene.layout.Border;
-import javafx.scene.layout.BorderStroke;
-import javafx.scene.layout.BorderStrokeStyle;
-import javafx.scene.layout.BorderWidths;
 import javafx.geometry.Pos;
 import javafx.scene.layout.VBox;
 
@@ -31,16 +24,27 @@ public class KenoGame {
     private Label drawnNumbersLabel;
     private Label matchedNumbersLabel;
     private Label oddsLabel;
-    private static int totalEarnings = 0;
-    private int lastRoundEarnings = 0;
+    private Label hotColdLabel;
+    private final Ledger.Account account;
+    private long lastRoundEarnings = 0;
     private Label roundEarningsLabel;
+    private final GridRenderer grid;
+    private final DrawAnimator drawAnimator;
+    private static final long BALL_NANOS = 200_000_000L;
+    private static final String SPEED_PROPERTY = "keno.animation.speed";
 
     // Constructor
-    public KenoGame(GameScene scene, GameController controller) {
+    public KenoGame(GameScene scene, GameController controller, Ledger.Account account) {
         this.gameScene = scene;
         this.controller = controller;
+        this.account = account;
+        this.grid = new GridRenderer(scene.getKenoNumberButtons());
+        scene.setGridRestyler(grid::flush);
+        this.drawAnimator = new DrawAnimator(BALL_NANOS, controller::revealNextBall, grid::flush, this::finishDrawing);
+        drawAnimator.setSpeed(DrawClock.parseSpeed(System.getProperty(SPEED_PROPERTY)));
         setupRightPanel();
         attachUIHandlers();
+        controller.addBallListener(this::showDrawnBall);
         refreshGridFromController();
     }
 
@@ -57,6 +61,7 @@ public class KenoGame {
         drawnNumbersLabel = createInfoLabel("Drawn Numbers:");
         matchedNumbersLabel = createInfoLabel("Matches:");
         oddsLabel = createInfoLabel("Odds:");
+        hotColdLabel = createInfoLabel("Hot / Cold:");
 
         roundEarningsLabel = new Label("Round Earnings: $0");
         roundEarningsLabel.setTextFill(Color.web("#22c55e"));
@@ -65,7 +70,7 @@ public class KenoGame {
 
         Label earnedLabel = gameScene.getearnedLabel();
         if (earnedLabel != null) {
-            earnedLabel.setText("EARNED:  $" + totalEarnings);
+            earnedLabel.setText("EARNED:  " + Ledger.format(account.getBalance()));
         }
         
         continueButton = new Button("CONTINUE");
@@ -79,7 +84,7 @@ public class KenoGame {
 
         rightInfoPanel.getChildren().addAll(
             selectedNumbersLabel, drawnNumbersLabel, 
-            matchedNumbersLabel, oddsLabel, continueButton
+            matchedNumbersLabel, oddsLabel, hotColdLabel, continueButton
         );
 
         gameScene.setRight(rightInfoPanel);
@@ -97,10 +102,10 @@ public class KenoGame {
 
     // Updates the earnings display
     private void updateEarningsDisplay() {
-        roundEarningsLabel.setText("Round Earnings: $" + lastRoundEarnings);
+        roundEarningsLabel.setText("Round Earnings: " + Ledger.format(lastRoundEarnings));
         Label earnedLabel = gameScene.getearnedLabel();
         if (earnedLabel != null) {
-            earnedLabel.setText("EARNED:  $" + totalEarnings);
+            earnedLabel.setText("EARNED:  " + Ledger.format(account.getBalance()));
         }
     }
 
@@ -111,80 +116,52 @@ public class KenoGame {
         updateOddsDisplay();
         updateSelectedNumbersDisplay();
         
-        SequentialTransition drawingSequence = new SequentialTransition();
-        ArrayList<Integer> drawing = controller.getCurrentDraw();
-        
-        for(int i = 1; i <= 80; i++) {
-            int num = i;
-            PauseTransition pause = new PauseTransition(Duration.millis(50));
-            pause.setOnFinished(e -> {
-                clearHighlights();
-                Button btn = gameScene.getKenoNumberButtons().get(num);
-                if(btn != null) {
-                    btn.setBorder(new Border(new BorderStroke(
-                        Color.RED, BorderStrokeStyle.SOLID, 
-                        new CornerRadii(4), new BorderWidths(2)
-                    )));
-                }
-            });
-            drawingSequence.getChildren().add(pause);
+        clearHighlights();
+
+        // Reveals the real draw one ball per step, showDrawnBall marks each one and the grid repaints once a frame
+        drawAnimator.play(DrawGenerator.DRAW_SIZE);
+    }
+
+    /**
+     * Handles matches between selected and drawn once every ball is out
+     */
+    private void finishDrawing() {
+        controller.revealAll();
+        grid.getState().clearHighlight();
+        grid.flush();
+
+        DrawResult result = controller.settleDrawing();
+        updateDrawnNumbersDisplay(result);
+        updateMatchedNumbersDisplay(result);
+        lastRoundEarnings = result.getPayoutCents();
+        account.credit(lastRoundEarnings);
+        updateEarningsDisplay();
+        updateHotColdDisplay();
+
+        if(controller.getCurrentDrawingNumber() < controller.getTotalDrawings()) {
+            continueButton.setVisible(true);
+        } else {
+            controller.endDrawingSession();
+            lockLeftControls(false);
+            showAlert("All drawings complete!", false);
         }
+    }
 
-        // Handles matches between selected and drawn
-        drawingSequence.setOnFinished(e -> {
-            clearHighlights();
-            Set<Integer> matches = controller.getMatches();
-            for(Integer num : drawing) {
-                Button btn = gameScene.getKenoNumberButtons().get(num);
-                if(btn != null) {
-                    btn.setBackground(new Background(new BackgroundFill(
-                        Color.RED, new CornerRadii(4), Insets.EMPTY)));
-                    btn.setTextFill(Color.WHITE);
-                }
-                if(matches.contains(num)) {
-                    Button matchedBtn = gameScene.getKenoNumberButtons().get(num);
-                    if(matchedBtn != null) {
-                        matchedBtn.setBackground(new Background(new BackgroundFill(
-                            Color.GREEN, new CornerRadii(4), Insets.EMPTY)));
-                        matchedBtn.setTextFill(Color.WHITE);
-                    }
-                }
-            }
-
-            updateDrawnNumbersDisplay();
-            updateMatchedNumbersDisplay();
-            int matchesTotal = controller.getMatches().size();
-            lastRoundEarnings = controller.getPayout(matchesTotal);
-            totalEarnings += lastRoundEarnings;
-            updateEarningsDisplay();
-
-            if(controller.getCurrentDrawingNumber() < controller.getTotalDrawings()) {
-                continueButton.setVisible(true);
-            } else {
-                controller.endDrawingSession();
-                lockLeftControls(false);
-                showAlert("All drawings complete!", false);
-            }
-        });
-
-        drawingSequence.play();
+    /**
+     * Marks a revealed ball green when it matches the ticket, red otherwise; painted on the next frame
+     */
+    private void showDrawnBall(int ball, int position, int matches, long payoutCents) {
+        grid.getState().reveal(ball, controller.getSelectionMask().contains(ball));
+        matchedNumbersLabel.setText("Matches: " + matches + " after " + (position + 1)
+            + " balls (" + Ledger.format(payoutCents) + ")");
     }
 
     /**
-     * Clears all highlights from number buttons
+     * Clears all highlights from number buttons, repainting only cells that were drawn
      */
     private void clearHighlights() {
-        for(Button btn : gameScene.getKenoNumberButtons().values()) {
-            btn.setBorder(null);
-            int btnValue = Integer.parseInt(btn.getText());
-            if(!controller.getSelected().contains(btnValue)) {
-                btn.setBackground(new Background(new BackgroundFill(Color.web("#181818"), new CornerRadii(4), Insets.EMPTY)));
-                btn.setTextFill(Color.WHITE);
-            } else {
-                btn.setBackground(new Background(new BackgroundFill(Color.web("#eab308"), new CornerRadii(4), Insets.EMPTY)));
-                btn.setTextFill(Color.BLACK);
-            }
-        }
+        grid.getState().showSelection(controller.getSelectionMask());
+        grid.flush();
     }
 
     /*
@@ -200,13 +177,19 @@ public class KenoGame {
         selectedNumbersLabel.setText("Your Numbers: " + controller.getSelected().toString());
     }
 
-    private void updateDrawnNumbersDisplay() {
-        drawnNumbersLabel.setText("Drawn Numbers: " + controller.getCurrentDraw().toString());
+    private void updateDrawnNumbersDisplay(DrawResult result) {
+        drawnNumbersLabel.setText("Drawn Numbers: " + result.getDrawnText());
+    }
+
+    private void updateHotColdDisplay() {
+        NumberStats stats = controller.getStatistics();
+        int window = Math.min(stats.getWindow(0), (int) Math.min(stats.getDraws(), Integer.MAX_VALUE));
+        hotColdLabel.setText("Hot (last " + window + "): " + Arrays.toString(stats.hottest(0, 5))
+            + "\nCold: " + Arrays.toString(stats.coldest(0, 5)));
     }
 
-    private void updateMatchedNumbersDisplay() {
-        Set<Integer> matches = controller.getMatches();
-        matchedNumbersLabel.setText("Matches: " + matches.toString() + " (" + matches.size() + " numbers)");
+    private void updateMatchedNumbersDisplay(DrawResult result) {
+        matchedNumbersLabel.setText("Matches: " + result.getMatchedText() + " (" + result.getMatchCount() + " numbers)");
     }
 
     /**
@@ -366,19 +349,10 @@ public class KenoGame {
      * Updates grid UI from controller state
      */
     private void refreshGridFromController() {
-        Set<Integer> selectedNumbers = controller.getSelected();
-        for (Map.Entry<Integer, Button> entry : gameScene.getKenoNumberButtons().entrySet()) {
-            Button numberButton = entry.getValue();
-            if (selectedNumbers.contains(entry.getKey())) {
-                numberButton.setBackground(new Background(new BackgroundFill(Color.web("#eab308"), new CornerRadii(4), Insets.EMPTY)));
-                numberButton.setTextFill(Color.BLACK);
-                numberButton.setBorder(null);
-            } else {
-                numberButton.setBackground(new Background(new BackgroundFill(Color.web("#181818"), new CornerRadii(4), Insets.EMPTY)));
-                numberButton.setTextFill(Color.WHITE);
-                numberButton.setBorder(null);
-            }
-            boolean shouldDisable = controller.getMaxSpots() == 0 || controller.isDrawingActive();
+        grid.getState().showSelection(controller.getSelectionMask());
+        grid.flush();
+        boolean shouldDisable = controller.getMaxSpots() == 0 || controller.isDrawingActive();
+        for (Button numberButton : gameScene.getKenoNumberButtons().values()) {
             numberButton.setDisable(shouldDisable);
         }
     }
@@ -0,0 +1,107 @@
+import java.math.BigInteger;
+
+/**
+ * Exact hypergeometric odds for Keno: P(k matches | spots picked, 20 of 80 drawn).
+ * Probabilities are computed once at startup, so lookups are plain array reads.
+ * Schedule figures are memoized per PaySchedule when it is compiled.
+ */
+public final class KenoOdds {
+    public static final int POOL_SIZE = DrawGenerator.POOL_SIZE;
+    public static final int DRAW_SIZE = DrawGenerator.DRAW_SIZE;
+    public static final int MAX_SPOTS = PaySchedule.MAX_SPOTS;
+
+    // PROBABILITY[spots][matches]
+    private static final double[][] PROBABILITY = new double[MAX_SPOTS + 1][MAX_SPOTS + 1];
+
+    static {
+        BigInteger allDraws = choose(POOL_SIZE, DRAW_SIZE);
+        for (int spots = 0; spots <= MAX_SPOTS; spots++) {
+            for (int k = 0; k <= spots; k++) {
+                BigInteger ways = choose(spots, k).multiply(choose(POOL_SIZE - spots, DRAW_SIZE - k));
+                PROBABILITY[spots][k] = ways.doubleValue() / allDraws.doubleValue();
+            }
+        }
+    }
+
+    private KenoOdds() {
+    }
+
+    /**
+     * Probability of exactly matches hits on a ticket with the given spots
+     */
+    public static double probability(int spots, int matches) {
+        if (spots < 0 || spots > MAX_SPOTS || matches < 0 || matches > spots) {
+            return 0.0;
+        }
+        return PROBABILITY[spots][matches];
+    }
+
+    /*
+     * Figures for the active PayoutTable schedule, per $1 bet
+     */
+
+    public static double hitProbability(int spots) {
+        return PayoutTable.getSchedule().hitProbability(spots);
+    }
+
+    public static double rtp(int spots) {
+        return PayoutTable.getSchedule().rtp(spots);
+    }
+
+    public static double variance(int spots) {
+        return PayoutTable.getSchedule().variance(spots);
+    }
+
+    /**
+     * Overall odds of winning anything, as "1 in X". Returns 0 when nothing pays
+     */
+    public static double odds(int spots) {
+        double hit = hitProbability(spots);
+        return hit > 0 ? 1.0 / hit : 0.0;
+    }
+
+    /*
+     * Figures for an arbitrary schedule, payouts[k] being the payout per $1 for k matches
+     */
+
+    public static double hitProbability(int spots, double[] payouts) {
+        double hit = 0.0;
+        for (int k = 0; k <= spots && k < payouts.length; k++) {
+            if (payouts[k] > 0) {
+                hit += probability(spots, k);
+            }
+        }
+        return hit;
+    }
+
+    public static double rtp(int spots, double[] payouts) {
+        double mean = 0.0;
+        for (int k = 0; k <= spots && k < payouts.length; k++) {
+            mean += probability(spots, k) * payouts[k];
+        }
+        return mean;
+    }
+
+    public static double variance(int spots, double[] payouts) {
+        double mean = rtp(spots, payouts);
+        double sumSquares = 0.0;
+        for (int k = 0; k <= spots && k < payouts.length; k++) {
+            sumSquares += probability(spots, k) * payouts[k] * payouts[k];
+        }
+        return sumSquares - mean * mean;
+    }
+
+    /**
+     * Binomial coefficient n choose k, exact
+     */
+    public static BigInteger choose(int n, int k) {
+        if (k < 0 || k > n) {
+            return BigInteger.ZERO;
+        }
+        BigInteger result = BigInteger.ONE;
+        for (int i = 0; i < k; i++) {
+            result = result.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
+        }
+        return result;
+    }
+}
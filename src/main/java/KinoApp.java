@@ -28,11 +28,13 @@ public class KinoApp extends Application {
 	@Override
 	public void start(Stage primaryStage) throws Exception {
 		primaryStage.setTitle("Kino Game");
+		// One account per terminal, shared by every game scene the stage shows
+		Ledger.Account terminal = Ledger.venue().openSession("terminal");
 
-        GameScene root = new GameScene(primaryStage);
+        GameScene root = new GameScene(primaryStage, terminal);
         root.setBackground(new Background(new BackgroundFill(Color.web("#44331F"), CornerRadii.EMPTY, Insets.EMPTY)));
 
-		MenuScene menuScene = new MenuScene(primaryStage);
+		MenuScene menuScene = new MenuScene(primaryStage, terminal);
     	Scene Menu = new Scene(menuScene, 900, 700);
 
 		primaryStage.setScene(Menu);
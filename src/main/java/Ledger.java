@@ -0,0 +1,204 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Earnings ledger with per-session accounts and a venue total.
+ *
+ * Amounts are long fixed-point cents. Each account is a LongAdder, so concurrent credits
+ * from many draw or settlement threads never contend on a lock. With a log directory
+ * every credit is also queued to a batched write-ahead log and balances are rebuilt
+ * from it on open. New account names are forced to the accounts file before the account
+ * is handed out, so no logged credit can name an account the registry has lost.
+ */
+public class Ledger implements Closeable {
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    private static final String LOG_FILE = "ledger.wal";
+    private static final String ACCOUNTS_FILE = "ledger.accounts";
+    private static final String RECOVERED_PREFIX = "recovered-";
+    private static final Ledger VENUE = new Ledger();
+
+    private final ConcurrentHashMap<String, Account> byName = new ConcurrentHashMap<>();
+    private final List<Account> byId = new ArrayList<>();
+    private final LongAdder venueTotal = new LongAdder();
+    private final LedgerLog log;
+    private final Path accountsFile;
+
+    /**
+     * Balance of one player session. Keep the handle to credit without a name lookup
+     */
+    public final class Account {
+        private final int id;
+        private final String name;
+        private final LongAdder balance = new LongAdder();
+
+        private Account(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public void credit(long cents) {
+            balance.add(cents);
+            venueTotal.add(cents);
+            if (log != null) {
+                log.append(id, cents);
+            }
+        }
+
+        public void creditDollars(long dollars) {
+            credit(dollars * CENTS_PER_DOLLAR);
+        }
+
+        public long getBalance() {
+            return balance.sum();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+
+    // Constructor, in-memory only
+    public Ledger() {
+        this.log = null;
+        this.accountsFile = null;
+    }
+
+    private Ledger(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.accountsFile = directory.resolve(ACCOUNTS_FILE);
+        Path logFile = directory.resolve(LOG_FILE);
+        if (Files.exists(accountsFile)) {
+            for (String name : Files.readAllLines(accountsFile, StandardCharsets.UTF_8)) {
+                if (!name.isEmpty()) {
+                    register(name);
+                }
+            }
+        }
+        LedgerLog.replay(logFile, (timestamp, account, amount) -> {
+            if (account >= 0) {
+                // Credits to ids missing from the registry keep them under placeholder names
+                while (byId.size() <= account) {
+                    String name = RECOVERED_PREFIX + byId.size();
+                    persist(name);
+                    register(name);
+                }
+                byId.get(account).balance.add(amount);
+            }
+            venueTotal.add(amount);
+        });
+        this.log = new LedgerLog(logFile);
+    }
+
+    /**
+     * Opens a durable ledger in the directory, replaying any existing log
+     */
+    public static Ledger open(Path directory) throws IOException {
+        return new Ledger(directory);
+    }
+
+    /**
+     * Process-wide in-memory ledger used by the game UI
+     */
+    public static Ledger venue() {
+        return VENUE;
+    }
+
+    /**
+     * Returns the account with the given name, creating it on first use
+     */
+    public Account account(String name) {
+        Account existing = byName.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (this) {
+            existing = byName.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            if (accountsFile != null) {
+                persist(name);
+            }
+            return register(name);
+        }
+    }
+
+    /**
+     * Creates a fresh account for one session, named prefix-n with the first free n
+     */
+    public synchronized Account openSession(String prefix) {
+        String name = prefix + "-" + byId.size();
+        for (int n = byId.size() + 1; byName.containsKey(name); n++) {
+            name = prefix + "-" + n;
+        }
+        return account(name);
+    }
+
+    public long getVenueBalance() {
+        return venueTotal.sum();
+    }
+
+    /**
+     * Waits until every credit so far is on disk, no-op for in-memory ledgers
+     */
+    public void flush() throws IOException {
+        if (log != null) {
+            log.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    /**
+     * Formats cents as dollars, e.g. 123456 -> "$1,234.56"
+     */
+    public static String format(long cents) {
+        String sign = cents < 0 ? "-" : "";
+        long abs = Math.abs(cents);
+        return String.format("%s$%,d.%02d", sign, abs / CENTS_PER_DOLLAR, abs % CENTS_PER_DOLLAR);
+    }
+
+    /**
+     * Appends the name to the accounts file and forces it to disk
+     */
+    private void persist(String name) {
+        ByteBuffer line = ByteBuffer.wrap((name + "\n").getBytes(StandardCharsets.UTF_8));
+        try (FileChannel out = FileChannel.open(accountsFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (line.hasRemaining()) {
+                out.write(line);
+            }
+            out.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Account register(String name) {
+        Account account = new Account(byId.size(), name);
+        byId.add(account);
+        byName.put(name, account);
+        return account;
+    }
+}
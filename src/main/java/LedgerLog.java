@@ -0,0 +1,179 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Batched write-ahead log for ledger entries.
+ *
+ * Producers claim a slot in a ring with one atomic increment, fill it and publish it.
+ * A background thread drains published slots in batches, writes them as fixed 24-byte
+ * records (timestamp, account id, amount) and forces each batch to disk, so posting an
+ * entry never waits for I/O. Producers only wait if the writer falls a full ring behind.
+ */
+public class LedgerLog implements Closeable {
+    public static final int RECORD_SIZE = 24;
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int BATCH_SIZE = 4096;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    /**
+     * Receives log records during replay
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(long timestampMillis, int account, long amount);
+    }
+
+    private final FileChannel channel;
+    private final int mask;
+    private final int[] accounts;
+    private final long[] amounts;
+    private final long[] timestamps;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_SIZE * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final Thread writer;
+    private volatile long consumed;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    // Constructor
+    public LedgerLog(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY);
+    }
+
+    public LedgerLog(Path file, int capacity) throws IOException {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // A crash can leave a torn record at the end; appending after it would misalign every later record
+        long size = channel.size();
+        if (size % RECORD_SIZE != 0) {
+            channel.truncate(size - size % RECORD_SIZE);
+            channel.force(true);
+        }
+        this.mask = capacity - 1;
+        this.accounts = new int[capacity];
+        this.amounts = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.writer = new Thread(this::drainLoop, "ledger-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues an entry for the log. Safe to call from any thread
+     */
+    public void append(int account, long amount) {
+        long seq = claimed.getAndIncrement();
+        while (seq - consumed > mask) {
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+            Thread.yield();
+        }
+        int slot = (int) (seq & mask);
+        accounts[slot] = account;
+        amounts[slot] = amount;
+        timestamps[slot] = System.currentTimeMillis();
+        published.lazySet(slot, seq + 1);
+    }
+
+    /**
+     * Waits until everything appended so far has been written and forced to disk
+     */
+    public void flush() throws IOException {
+        long target = claimed.get();
+        while (consumed < target) {
+            if (failure != null) {
+                throw failure;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /**
+     * Reads every whole record of a log file in order, ignoring a torn record at the end
+     */
+    public static void replay(Path file, EntryVisitor visitor) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BATCH_SIZE * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (in.read(buffer) > 0 || buffer.position() > 0) {
+                buffer.flip();
+                if (buffer.remaining() < RECORD_SIZE) {
+                    break;
+                }
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    long timestamp = buffer.getLong();
+                    int account = buffer.getInt();
+                    buffer.getInt();
+                    long amount = buffer.getLong();
+                    visitor.visit(timestamp, account, amount);
+                }
+                buffer.compact();
+            }
+        }
+    }
+
+    // Writer thread: copies consecutive published slots into one buffer per batch
+    private void drainLoop() {
+        long cursor = consumed;
+        while (running || cursor < claimed.get()) {
+            batch.clear();
+            while (batch.remaining() >= RECORD_SIZE) {
+                int slot = (int) (cursor & mask);
+                if (published.get(slot) != cursor + 1) {
+                    break;
+                }
+                batch.putLong(timestamps[slot]);
+                batch.putInt(accounts[slot]);
+                batch.putInt(0);
+                batch.putLong(amounts[slot]);
+                cursor++;
+            }
+            if (batch.position() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                failure = e;
+                return;
+            }
+            consumed = cursor;
+        }
+    }
+}
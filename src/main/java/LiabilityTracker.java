@@ -0,0 +1,216 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Tracks the house's payout exposure on a batch of open tickets while a draw is revealed.
+ *
+ * After every ball it reports a lower and an upper bound on the final payout and the
+ * exact expected payout, all in cents. The bounds add up each ticket's own best and
+ * worst case, which the remaining balls cannot all produce at once for overlapping
+ * tickets, so they bracket the true joint extremes rather than equal them. An inverted index from number to
+ * ticket IDs means a ball only touches the tickets that contain it. Tickets are then
+ * aggregated by (spots, matches so far) as summed wagers, and each cell is priced from
+ * tables of exact hypergeometric outcomes for the balls still to come, so the totals
+ * cost O(11 x 11) per ball no matter how many tickets are open.
+ */
+public class LiabilityTracker implements BallListener {
+    private static final int STRIDE = PaySchedule.STRIDE;
+    private static final int DRAW_SIZE = DrawGenerator.DRAW_SIZE;
+    private static final int POOL_SIZE = DrawGenerator.POOL_SIZE;
+
+    private final TicketColumns tickets;
+    private final byte[] matches;
+    // Inverted index in compressed rows: tickets holding number n are index[offsets[n]..offsets[n + 1])
+    private final int[] offsets = new int[POOL_SIZE + 2];
+    private final int[] index;
+    // Summed wager in dollars of the tickets in each (spots, matches) cell, counting duplicates
+    private final long[] wagerByCell = new long[STRIDE * STRIDE];
+    // Per $1 bet, by balls drawn and cell: cheapest and dearest reachable outcome, and the mean
+    private final long[][] minCents = new long[DRAW_SIZE + 1][STRIDE * STRIDE];
+    private final long[][] maxCents = new long[DRAW_SIZE + 1][STRIDE * STRIDE];
+    private final double[][] expectedCents = new double[DRAW_SIZE + 1][STRIDE * STRIDE];
+
+    private long drawnLo;
+    private long drawnHi;
+    private int ballsDrawn;
+    private long guaranteed;
+    private long maximum;
+    private double expected;
+
+    // Constructor
+    public LiabilityTracker(TicketColumns tickets) {
+        this(tickets, PayoutTable.getSchedule());
+    }
+
+    public LiabilityTracker(TicketColumns tickets, PaySchedule schedule) {
+        this.tickets = tickets;
+        this.matches = new byte[tickets.size()];
+        this.index = buildIndex(tickets, offsets);
+        buildTables(schedule);
+        reset();
+    }
+
+    /**
+     * Clears all match counts for a new draw
+     */
+    public void reset() {
+        Arrays.fill(matches, (byte) 0);
+        Arrays.fill(wagerByCell, 0L);
+        for (int t = 0; t < tickets.size(); t++) {
+            wagerByCell[tickets.spots(t) * STRIDE] += (long) tickets.wager(t) * tickets.count(t);
+        }
+        drawnLo = 0L;
+        drawnHi = 0L;
+        ballsDrawn = 0;
+        recompute();
+    }
+
+    @Override
+    public void onBall(int ball, int position, int ticketMatches, long payoutCents) {
+        ballDrawn(ball);
+    }
+
+    /**
+     * Applies one drawn ball. Repeated or out of range balls are ignored
+     */
+    public void ballDrawn(int ball) {
+        if (ball < 1 || ball > POOL_SIZE || ballsDrawn >= DRAW_SIZE || DrawMask.contains(drawnLo, drawnHi, ball)) {
+            return;
+        }
+        drawnLo |= DrawMask.loBit(ball);
+        drawnHi |= DrawMask.hiBit(ball);
+        ballsDrawn++;
+        for (int i = offsets[ball]; i < offsets[ball + 1]; i++) {
+            int t = index[i];
+            int cell = tickets.spots(t) * STRIDE + matches[t];
+            long wager = (long) tickets.wager(t) * tickets.count(t);
+            wagerByCell[cell] -= wager;
+            wagerByCell[cell + 1] += wager;
+            matches[t]++;
+        }
+        recompute();
+    }
+
+    public int getBallsDrawn() {
+        return ballsDrawn;
+    }
+
+    public int getMatches(int ticket) {
+        return matches[ticket];
+    }
+
+    /**
+     * Lower bound in cents on the final payout: the sum of each ticket's smallest reachable
+     * payout. The house owes at least this whatever the remaining balls are, but the true
+     * joint minimum can be higher
+     */
+    public long getGuaranteedCents() {
+        return guaranteed;
+    }
+
+    /**
+     * Upper bound in cents on the final payout: the sum of each ticket's largest reachable
+     * payout. No set of remaining balls can cost more, but the true joint worst case can
+     * be lower, since one set of balls rarely maxes out every ticket
+     */
+    public long getMaximumCents() {
+        return maximum;
+    }
+
+    /**
+     * Expected payout in cents given the balls drawn so far
+     */
+    public double getExpectedCents() {
+        return expected;
+    }
+
+    private void recompute() {
+        long[] min = minCents[ballsDrawn];
+        long[] max = maxCents[ballsDrawn];
+        double[] mean = expectedCents[ballsDrawn];
+        long g = 0;
+        long m = 0;
+        double e = 0.0;
+        for (int cell = 0; cell < wagerByCell.length; cell++) {
+            long wager = wagerByCell[cell];
+            if (wager != 0) {
+                g += min[cell] * wager;
+                m += max[cell] * wager;
+                e += mean[cell] * wager;
+            }
+        }
+        guaranteed = g;
+        maximum = m;
+        expected = e;
+    }
+
+    private static int[] buildIndex(TicketColumns tickets, int[] offsets) {
+        int total = 0;
+        for (int t = 0; t < tickets.size(); t++) {
+            total += tickets.spots(t);
+            forEachNumber(tickets.lo(t), tickets.hi(t), n -> offsets[n + 1]++);
+        }
+        for (int n = 1; n < offsets.length; n++) {
+            offsets[n] += offsets[n - 1];
+        }
+        int[] index = new int[total];
+        int[] fill = offsets.clone();
+        for (int t = 0; t < tickets.size(); t++) {
+            int ticket = t;
+            forEachNumber(tickets.lo(t), tickets.hi(t), n -> index[fill[n]++] = ticket);
+        }
+        return index;
+    }
+
+    private static void forEachNumber(long lo, long hi, IntConsumer action) {
+        while (lo != 0) {
+            action.accept(Long.numberOfTrailingZeros(lo) + 1);
+            lo &= lo - 1;
+        }
+        while (hi != 0) {
+            action.accept(Long.numberOfTrailingZeros(hi) + 65);
+            hi &= hi - 1;
+        }
+    }
+
+    /*
+     * With d balls drawn a ticket with s spots and m matches still has u = s - m numbers
+     * in the remaining pool of 80 - d, and 20 - d balls to come. Its extra matches x are
+     * hypergeometric: C(u, x) C(80 - d - u, 20 - d - x) / C(80 - d, 20 - d).
+     */
+    private void buildTables(PaySchedule schedule) {
+        double[][] choose = new double[POOL_SIZE + 1][POOL_SIZE + 1];
+        for (int n = 0; n <= POOL_SIZE; n++) {
+            choose[n][0] = 1.0;
+            for (int k = 1; k <= n; k++) {
+                choose[n][k] = choose[n - 1][k - 1] + (k <= n - 1 ? choose[n - 1][k] : 0.0);
+            }
+        }
+        for (int d = 0; d <= DRAW_SIZE; d++) {
+            int pool = POOL_SIZE - d;
+            int remaining = DRAW_SIZE - d;
+            for (int spots = 0; spots <= PaySchedule.MAX_SPOTS; spots++) {
+                for (int m = 0; m <= spots; m++) {
+                    int unknown = spots - m;
+                    long min = Long.MAX_VALUE;
+                    long max = 0;
+                    double mean = 0.0;
+                    for (int x = 0; x <= Math.min(unknown, remaining); x++) {
+                        if (remaining - x > pool - unknown) {
+                            continue;
+                        }
+                        long pay = schedule.getPayoutCents(spots, m + x);
+                        double p = choose[unknown][x] * choose[pool - unknown][remaining - x] / choose[pool][remaining];
+                        min = Math.min(min, pay);
+                        max = Math.max(max, pay);
+                        mean += p * pay;
+                    }
+                    int cell = spots * STRIDE + m;
+                    minCents[d][cell] = min == Long.MAX_VALUE ? 0 : min;
+                    maxCents[d][cell] = max;
+                    expectedCents[d][cell] = mean;
+                }
+            }
+        }
+    }
+}
@@ -16,10 +16,12 @@ import javafx.application.Platform;
  */
 public class MenuScene extends BorderPane {
     private Stage primaryStage;
+    private final Ledger.Account terminal;
 
-    // Menu Constructor
-    public MenuScene(Stage stage) {
+    // Menu Constructor, terminal is the account every game started from here credits
+    public MenuScene(Stage stage, Ledger.Account terminal) {
         this.primaryStage = stage;
+        this.terminal = terminal;
         setupUI();
         SceneManager.updateMenuTheme(this);
     }
@@ -124,7 +126,7 @@ public class MenuScene extends BorderPane {
         
         // Switches scenes on click to game scene
         playButton.setOnAction(e -> {
-            GameScene gameScene = new GameScene(primaryStage);
+            GameScene gameScene = new GameScene(primaryStage, terminal);
             SceneManager.updateSceneTheme(gameScene);
 
             Button themeBtn = gameScene.getThemeButton();
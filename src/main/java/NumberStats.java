@@ -0,0 +1,199 @@
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Incremental hot/cold statistics over the draw history.
+ *
+ * Keeps per-number frequency counts for several sliding windows (by default the
+ * last 100, 1,000 and 10,000 draws) and the number of draws since each number was
+ * last seen. Recording a draw costs O(20) per window: the new draw is added and the
+ * one falling out of each window is subtracted using a ring of past draw masks.
+ *
+ * There is one writer, normally the DrawEngine publishing draws, which feeds every draw
+ * through onDraw. Readers never lock: they use a sequence counter that is odd while an
+ * update is in progress and retry if it moved.
+ */
+public class NumberStats implements DrawListener {
+    public static final int[] DEFAULT_WINDOWS = {100, 1_000, 10_000};
+
+    private static final int SLOTS = DrawMask.MAX_NUMBER + 1;
+
+    private final int[] windows;
+    private final int capacity;
+    private final long[] historyLo;
+    private final long[] historyHi;
+    private final int[][] counts;
+    private final long[] lastSeen = new long[SLOTS];
+    private long draws;
+    private volatile long version;
+
+    // Constructor
+    public NumberStats() {
+        this(DEFAULT_WINDOWS);
+    }
+
+    public NumberStats(int... windows) {
+        if (windows.length == 0) {
+            throw new IllegalArgumentException("At least one window is required");
+        }
+        this.windows = windows.clone();
+        int max = 0;
+        for (int window : windows) {
+            if (window < 1) {
+                throw new IllegalArgumentException("Window must be positive: " + window);
+            }
+            max = Math.max(max, window);
+        }
+        this.capacity = max;
+        this.historyLo = new long[max];
+        this.historyHi = new long[max];
+        this.counts = new int[windows.length][SLOTS];
+        Arrays.fill(lastSeen, -1L);
+    }
+
+    public void record(DrawMask draw) {
+        record(draw.lo(), draw.hi());
+    }
+
+    @Override
+    public void onDraw(Draw draw) {
+        record(draw.getMask());
+    }
+
+    /**
+     * Adds a completed draw. Must only be called from one thread at a time
+     */
+    public void record(long lo, long hi) {
+        long v = version;
+        version = v + 1;
+        VarHandle.storeStoreFence();
+
+        for (int w = 0; w < windows.length; w++) {
+            int[] windowCounts = counts[w];
+            add(windowCounts, lo, hi, 1);
+            if (draws >= windows[w]) {
+                int expired = (int) ((draws - windows[w]) % capacity);
+                add(windowCounts, historyLo[expired], historyHi[expired], -1);
+            }
+        }
+        int slot = (int) (draws % capacity);
+        historyLo[slot] = lo;
+        historyHi[slot] = hi;
+        markSeen(lo, 1);
+        markSeen(hi, 65);
+        draws++;
+
+        version = v + 2;
+    }
+
+    /**
+     * Copies the counts for window index w into out[1..80] and returns the draws covered
+     */
+    public int frequencies(int w, int[] out) {
+        while (true) {
+            long before = version;
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            System.arraycopy(counts[w], 0, out, 0, SLOTS);
+            long covered = Math.min(draws, windows[w]);
+            VarHandle.loadLoadFence();
+            if (version == before) {
+                return (int) covered;
+            }
+        }
+    }
+
+    /**
+     * Copies the draws since each number was last seen into out[1..80]
+     * Numbers never drawn report the total number of draws
+     */
+    public void gaps(long[] out) {
+        while (true) {
+            long before = version;
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long total = draws;
+            for (int n = 1; n < SLOTS; n++) {
+                long seen = lastSeen[n];
+                out[n] = seen < 0 ? total : total - 1 - seen;
+            }
+            VarHandle.loadLoadFence();
+            if (version == before) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The k most frequent numbers in window w, most frequent first
+     */
+    public int[] hottest(int w, int k) {
+        int[] freq = new int[SLOTS];
+        frequencies(w, freq);
+        return rank(freq, k, true);
+    }
+
+    /**
+     * The k least frequent numbers in window w, least frequent first
+     */
+    public int[] coldest(int w, int k) {
+        int[] freq = new int[SLOTS];
+        frequencies(w, freq);
+        return rank(freq, k, false);
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public int getWindowCount() {
+        return windows.length;
+    }
+
+    public int getWindow(int w) {
+        return windows[w];
+    }
+
+    // Partial selection over the 80 counts, ties go to the lower number
+    private static int[] rank(int[] freq, int k, boolean highest) {
+        k = Math.min(k, DrawMask.MAX_NUMBER);
+        int[] result = new int[k];
+        boolean[] taken = new boolean[SLOTS];
+        for (int i = 0; i < k; i++) {
+            int best = 0;
+            for (int n = 1; n < SLOTS; n++) {
+                if (taken[n]) {
+                    continue;
+                }
+                if (best == 0 || (highest ? freq[n] > freq[best] : freq[n] < freq[best])) {
+                    best = n;
+                }
+            }
+            taken[best] = true;
+            result[i] = best;
+        }
+        return result;
+    }
+
+    private static void add(int[] windowCounts, long lo, long hi, int delta) {
+        while (lo != 0) {
+            windowCounts[Long.numberOfTrailingZeros(lo) + 1] += delta;
+            lo &= lo - 1;
+        }
+        while (hi != 0) {
+            windowCounts[Long.numberOfTrailingZeros(hi) + 65] += delta;
+            hi &= hi - 1;
+        }
+    }
+
+    private void markSeen(long bits, int base) {
+        while (bits != 0) {
+            lastSeen[Long.numberOfTrailingZeros(bits) + base] = draws;
+            bits &= bits - 1;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ticket store kept outside the Java heap, for hundreds of millions of tickets.
+ *
+ * Rows are grouped into chunks of 2^20 tickets. Each chunk is one direct ByteBuffer
+ * laid out column by column (selection low word, selection high word, spots, wager,
+ * first draw, draw count), so a settlement scan reads each column sequentially and
+ * the garbage collector only ever sees one object per chunk. A ticket's ID is its row.
+ * The first draw is kept as an int offset from a base sequence stored once per chunk,
+ * so a ticket takes 18 bytes, about 9 GB for 500 million tickets.
+ *
+ * Appends are lock-free: a writer claims a row with one atomic increment, allocating
+ * the chunk with a compare-and-set if it is the first to reach it, fills the row and
+ * bumps the chunk's written counter. size() only covers chunks whose every claimed row
+ * has been written, so while writers are busy it may lag behind, and once they stop
+ * it is exact. Writers never wait for each other.
+ */
+public class OffHeapTicketStore implements TicketColumns {
+    public static final int ROW_BYTES = 18;
+    public static final int MAX_DRAW_COUNT = Character.MAX_VALUE;
+
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+
+    // Column offsets within a chunk
+    private static final int DRAW_BASE = 0;
+    private static final int LO = DRAW_BASE + 8;
+    private static final int HI = LO + 8 * CHUNK_ROWS;
+    private static final int SPOTS = HI + 2 * CHUNK_ROWS;
+    private static final int WAGER = SPOTS + CHUNK_ROWS;
+    private static final int FIRST_DRAW = WAGER + CHUNK_ROWS;
+    private static final int DRAW_COUNT = FIRST_DRAW + 4 * CHUNK_ROWS;
+    private static final int CHUNK_BYTES = DRAW_COUNT + 2 * CHUNK_ROWS;
+
+    private final int capacity;
+    private final AtomicReferenceArray<ByteBuffer> chunks;
+    private final AtomicIntegerArray written;
+    private final AtomicLong claimed = new AtomicLong();
+
+    // Constructor, capacity is the maximum number of tickets
+    public OffHeapTicketStore(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        int chunkCount = (int) (((long) capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+        this.chunks = new AtomicReferenceArray<>(chunkCount);
+        this.written = new AtomicIntegerArray(chunkCount);
+    }
+
+    /**
+     * Adds a $1 ticket for a single draw and returns its row
+     */
+    public int add(DrawMask selection) {
+        return add(selection.lo(), selection.hi(), PaySchedule.MIN_WAGER, 0L, 1);
+    }
+
+    /**
+     * Adds a ticket playing draws [firstDraw, firstDraw + drawCount) and returns its row,
+     * which is also its ticket ID. Safe to call from any thread
+     */
+    public int add(long selectionLo, long selectionHi, int wagerDollars, long firstDraw, int drawCount) {
+        if (!PaySchedule.isValidWager(wagerDollars)) {
+            throw new IllegalArgumentException("Wager must be $" + PaySchedule.MIN_WAGER
+                + "-$" + PaySchedule.MAX_WAGER + ": " + wagerDollars);
+        }
+        if (drawCount < 1 || drawCount > MAX_DRAW_COUNT) {
+            throw new IllegalArgumentException("drawCount must be 1-" + MAX_DRAW_COUNT + ": " + drawCount);
+        }
+        selectionHi &= DrawMask.HI_MASK;
+        int picked = Long.bitCount(selectionLo) + Long.bitCount(selectionHi);
+        if (picked < 1 || picked > PaySchedule.MAX_SPOTS) {
+            throw new IllegalArgumentException("Ticket must have 1-" + PaySchedule.MAX_SPOTS + " spots: " + picked);
+        }
+        long row = claimed.getAndIncrement();
+        if (row >= capacity) {
+            claimed.decrementAndGet();
+            throw new IllegalStateException("Ticket store is full: " + capacity);
+        }
+        int index = (int) (row >>> CHUNK_SHIFT);
+        ByteBuffer chunk = chunk(index, firstDraw);
+        int r = (int) (row & CHUNK_MASK);
+        long offset = firstDraw - chunk.getLong(DRAW_BASE);
+        boolean fits = offset == (int) offset;
+        chunk.putLong(LO + 8 * r, selectionLo);
+        chunk.putShort(HI + 2 * r, (short) selectionHi);
+        chunk.put(SPOTS + r, (byte) picked);
+        chunk.put(WAGER + r, (byte) wagerDollars);
+        chunk.putInt(FIRST_DRAW + 4 * r, fits ? (int) offset : 0);
+        // The row is already claimed, so one that cannot be stored is written as playing no draw
+        chunk.putChar(DRAW_COUNT + 2 * r, fits ? (char) drawCount : 0);
+        written.incrementAndGet(index);
+        if (!fits) {
+            throw new IllegalArgumentException("firstDraw " + firstDraw + " is too far from the chunk's base "
+                + chunk.getLong(DRAW_BASE) + ", row " + row + " plays no draw");
+        }
+        return (int) row;
+    }
+
+    /**
+     * Number of tickets in the longest prefix known to be fully written
+     */
+    @Override
+    public int size() {
+        long total = Math.min(claimed.get(), capacity);
+        int chunkCount = (int) ((total + CHUNK_MASK) >>> CHUNK_SHIFT);
+        for (int i = 0; i < chunkCount; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            int rows = (int) Math.min(CHUNK_ROWS, total - start);
+            // A later claim finishing first can push the count past rows, so only equality proves the prefix
+            if (written.get(i) != rows) {
+                return (int) start;
+            }
+        }
+        return (int) total;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Direct memory held by the allocated chunks
+     */
+    public long getAllocatedBytes() {
+        long bytes = 0;
+        for (int i = 0; i < chunks.length(); i++) {
+            if (chunks.get(i) != null) {
+                bytes += CHUNK_BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    /*
+     * Column accessors for settlement loops
+     */
+
+    @Override
+    public long lo(int ticket) {
+        return chunks.get(ticket >>> CHUNK_SHIFT).getLong(LO + 8 * (ticket & CHUNK_MASK));
+    }
+
+    @Override
+    public long hi(int ticket) {
+        return chunks.get(ticket >>> CHUNK_SHIFT).getShort(HI + 2 * (ticket & CHUNK_MASK)) & DrawMask.HI_MASK;
+    }
+
+    @Override
+    public int spots(int ticket) {
+        return chunks.get(ticket >>> CHUNK_SHIFT).get(SPOTS + (ticket & CHUNK_MASK));
+    }
+
+    @Override
+    public int wager(int ticket) {
+        return chunks.get(ticket >>> CHUNK_SHIFT).get(WAGER + (ticket & CHUNK_MASK));
+    }
+
+    @Override
+    public int count(int ticket) {
+        return 1;
+    }
+
+    public long firstDraw(int ticket) {
+        ByteBuffer chunk = chunks.get(ticket >>> CHUNK_SHIFT);
+        return chunk.getLong(DRAW_BASE) + chunk.getInt(FIRST_DRAW + 4 * (ticket & CHUNK_MASK));
+    }
+
+    public int drawCount(int ticket) {
+        return chunks.get(ticket >>> CHUNK_SHIFT).getChar(DRAW_COUNT + 2 * (ticket & CHUNK_MASK));
+    }
+
+    @Override
+    public boolean plays(int ticket, long drawSequence) {
+        long first = firstDraw(ticket);
+        return drawSequence >= first && drawSequence < first + drawCount(ticket);
+    }
+
+    public DrawMask selection(int ticket) {
+        return new DrawMask(lo(ticket), hi(ticket));
+    }
+
+    /**
+     * Returns the chunk, allocating it with drawBase as its base draw sequence if it is missing
+     */
+    private ByteBuffer chunk(int index, long drawBase) {
+        ByteBuffer chunk = chunks.get(index);
+        if (chunk == null) {
+            ByteBuffer allocated = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.nativeOrder());
+            allocated.putLong(DRAW_BASE, drawBase);
+            chunk = chunks.compareAndSet(index, null, allocated) ? allocated : chunks.get(index);
+        }
+        return chunk;
+    }
+}
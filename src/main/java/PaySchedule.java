@@ -0,0 +1,187 @@
+import java.util.Properties;
+
+/**
+ * Immutable pay schedule compiled into flat tables indexed by spots and matches.
+ * Amounts are fixed-point cents. A second table holds the payout for every wager
+ * tier ($1-$10), so settlement is a single array read with no arithmetic on money.
+ * Odds, RTP and variance for each spot count are computed once when the schedule is built.
+ */
+public final class PaySchedule {
+    public static final int MAX_SPOTS = 10;
+    public static final int STRIDE = MAX_SPOTS + 1;
+    public static final int MIN_WAGER = 1;
+    public static final int MAX_WAGER = 10;
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    private static final String PAY_PREFIX = "pay.";
+
+    private final String name;
+    private final long[] payoutCents;
+    // wagerCents[(spots * STRIDE + matches) * MAX_WAGER + wager - 1]
+    private final long[] wagerCents;
+    private final double minRtp;
+    private final double maxRtp;
+    private final double[] hitProbability = new double[STRIDE];
+    private final double[] rtp = new double[STRIDE];
+    private final double[] variance = new double[STRIDE];
+
+    // Constructor, payoutCents holds cents per $1 bet indexed as spots * STRIDE + matches
+    public PaySchedule(String name, long[] payoutCents, double minRtp, double maxRtp) {
+        if (payoutCents.length != STRIDE * STRIDE) {
+            throw new IllegalArgumentException("payouts must have " + (STRIDE * STRIDE) + " entries");
+        }
+        this.name = name;
+        this.payoutCents = payoutCents.clone();
+        this.wagerCents = new long[STRIDE * STRIDE * MAX_WAGER];
+        this.minRtp = minRtp;
+        this.maxRtp = maxRtp;
+        for (int i = 0; i < this.payoutCents.length; i++) {
+            for (int wager = MIN_WAGER; wager <= MAX_WAGER; wager++) {
+                wagerCents[i * MAX_WAGER + wager - 1] = this.payoutCents[i] * wager;
+            }
+        }
+        for (int spots = 1; spots <= MAX_SPOTS; spots++) {
+            double[] row = new double[spots + 1];
+            for (int k = 0; k <= spots; k++) {
+                row[k] = this.payoutCents[spots * STRIDE + k] / (double) CENTS_PER_DOLLAR;
+            }
+            hitProbability[spots] = KenoOdds.hitProbability(spots, row);
+            rtp[spots] = KenoOdds.rtp(spots, row);
+            variance[spots] = KenoOdds.variance(spots, row);
+        }
+    }
+
+    /**
+     * Compiles a schedule from pay.<spots>.<matches>=<amount> entries, amounts in dollars with up to 2 decimals
+     */
+    public static PaySchedule fromProperties(Properties props) {
+        long[] payouts = new long[STRIDE * STRIDE];
+        for (String key : props.stringPropertyNames()) {
+            if (!key.startsWith(PAY_PREFIX)) {
+                continue;
+            }
+            String[] parts = key.substring(PAY_PREFIX.length()).split("\\.");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad pay key: " + key);
+            }
+            int spots = Integer.parseInt(parts[0].trim());
+            int matches = Integer.parseInt(parts[1].trim());
+            long amount = parseCents(key, props.getProperty(key));
+            if (spots < 1 || spots > MAX_SPOTS || matches < 0 || matches > spots) {
+                throw new IllegalArgumentException("Pay key out of range: " + key);
+            }
+            payouts[spots * STRIDE + matches] = amount;
+        }
+        String name = props.getProperty("name", "unnamed");
+        double minRtp = Double.parseDouble(props.getProperty("rtp.min", "0"));
+        double maxRtp = Double.parseDouble(props.getProperty("rtp.max", "1"));
+        return new PaySchedule(name, payouts, minRtp, maxRtp);
+    }
+
+    // Parses "12", "2.5" or "2.50" into cents without going through floating point
+    private static long parseCents(String key, String value) {
+        String amount = value.trim();
+        int dot = amount.indexOf('.');
+        String whole = dot < 0 ? amount : amount.substring(0, dot);
+        String fraction = dot < 0 ? "" : amount.substring(dot + 1);
+        if (fraction.length() > 2 || (whole.isEmpty() && fraction.isEmpty())) {
+            throw new IllegalArgumentException("Bad amount for " + key + ": " + value);
+        }
+        long dollars = whole.isEmpty() ? 0 : Long.parseLong(whole);
+        long cents = fraction.isEmpty() ? 0 : Long.parseLong(fraction.length() == 1 ? fraction + "0" : fraction);
+        if (dollars < 0 || cents < 0 || whole.startsWith("-")) {
+            throw new IllegalArgumentException("Negative payout for " + key);
+        }
+        return Math.addExact(Math.multiplyExact(dollars, CENTS_PER_DOLLAR), cents);
+    }
+
+    /**
+     * Rejects the schedule if any spot count that pays has an RTP outside the configured bounds
+     */
+    public void validate() {
+        for (int spots = 1; spots <= MAX_SPOTS; spots++) {
+            if (!hasPayouts(spots)) {
+                continue;
+            }
+            if (rtp[spots] < minRtp || rtp[spots] > maxRtp) {
+                throw new IllegalArgumentException(String.format(
+                    "Schedule '%s': %d spot RTP %.4f outside [%.4f, %.4f]",
+                    name, spots, rtp[spots], minRtp, maxRtp));
+            }
+        }
+    }
+
+    /**
+     * Whole-dollar payout per $1 bet, zero for combinations that do not pay
+     * @deprecated drops the cents of fractional payouts (2.50 becomes 2); use getPayoutCents
+     */
+    @Deprecated
+    public int getPayout(int spots, int matches) {
+        return (int) (getPayoutCents(spots, matches) / CENTS_PER_DOLLAR);
+    }
+
+    /**
+     * Payout in cents per $1 bet
+     */
+    public long getPayoutCents(int spots, int matches) {
+        if (spots < 0 || spots > MAX_SPOTS || matches < 0 || matches > MAX_SPOTS) {
+            return 0;
+        }
+        return payoutCents[spots * STRIDE + matches];
+    }
+
+    /**
+     * Payout in cents for a wager of 1-10 dollars, a single table read
+     */
+    public long getPayoutCents(int spots, int matches, int wager) {
+        if (spots < 0 || spots > MAX_SPOTS || matches < 0 || matches > MAX_SPOTS
+                || wager < MIN_WAGER || wager > MAX_WAGER) {
+            return 0;
+        }
+        return wagerCents[(spots * STRIDE + matches) * MAX_WAGER + wager - 1];
+    }
+
+    public static boolean isValidWager(int wager) {
+        return wager >= MIN_WAGER && wager <= MAX_WAGER;
+    }
+
+    public boolean hasPayouts(int spots) {
+        if (spots < 1 || spots > MAX_SPOTS) {
+            return false;
+        }
+        for (int k = 0; k <= spots; k++) {
+            if (payoutCents[spots * STRIDE + k] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getMinRtp() {
+        return minRtp;
+    }
+
+    public double getMaxRtp() {
+        return maxRtp;
+    }
+
+    /*
+     * Precomputed figures per $1 bet
+     */
+
+    public double hitProbability(int spots) {
+        return spots >= 1 && spots <= MAX_SPOTS ? hitProbability[spots] : 0.0;
+    }
+
+    public double rtp(int spots) {
+        return spots >= 1 && spots <= MAX_SPOTS ? rtp[spots] : 0.0;
+    }
+
+    public double variance(int spots) {
+        return spots >= 1 && spots <= MAX_SPOTS ? variance[spots] : 0.0;
+    }
+}
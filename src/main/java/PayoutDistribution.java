@@ -0,0 +1,356 @@
+/**
+ * Distribution of the total house payout for one draw over a whole pool of sold tickets.
+ *
+ * Tickets are grouped by payout profile (spots, wager), so a pool of any size is at
+ * most 100 profiles. Each ticket's payout is hypergeometric; tickets are treated as
+ * independent, which holds for quick-picks but understates the spread of pools with
+ * many overlapping hand picks. The pmf lives on a grid of equal-width buckets: each
+ * payout is split between its two neighbouring buckets so means stay exact, the
+ * n-fold sum of a profile is built by FFT squaring, and profiles are then convolved
+ * together. Payouts never go negative, so whatever falls past the grid during a
+ * convolution is exactly the chance the total exceeds the grid; it is kept as the
+ * overflow probability.
+ *
+ * Mean and variance are exact. Percentiles are accurate to one bucket, and tail
+ * probabilities below about 1e-12 are FFT rounding noise.
+ */
+public class PayoutDistribution {
+    public static final int DEFAULT_BUCKETS = 1 << 12;
+
+    private static final int MAX_WAGER = PaySchedule.MAX_WAGER;
+    private static final int MAX_SPOTS = PaySchedule.MAX_SPOTS;
+    // The grid covers this many standard deviations above the mean unless the worst case is smaller
+    private static final double GRID_SIGMAS = 40.0;
+    private static final int MAX_RESERVE_STATES = 1 << 20;
+    // Terms this far below the largest one are FFT rounding noise
+    private static final double NOISE = 1e-15;
+
+    private final long[] ticketCounts;
+    private final long revenueCents;
+    private final double meanCents;
+    private final double varianceCents;
+    private final long bucketCents;
+    private final double[] pmf;
+    private final double overflow;
+
+    // Constructor
+    public PayoutDistribution(TicketColumns tickets, PaySchedule schedule) {
+        this(profiles(tickets), schedule, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * ticketCounts is indexed by spots * MAX_WAGER + wager - 1
+     */
+    public PayoutDistribution(long[] ticketCounts, PaySchedule schedule, int buckets) {
+        if (ticketCounts.length != (MAX_SPOTS + 1) * MAX_WAGER) {
+            throw new IllegalArgumentException("ticketCounts must have " + ((MAX_SPOTS + 1) * MAX_WAGER) + " entries");
+        }
+        if (buckets < 2) {
+            throw new IllegalArgumentException("buckets must be at least 2: " + buckets);
+        }
+        this.ticketCounts = ticketCounts.clone();
+
+        long revenue = 0;
+        double mean = 0.0;
+        double variance = 0.0;
+        double worst = 0.0;
+        for (int spots = 1; spots <= MAX_SPOTS; spots++) {
+            for (int wager = PaySchedule.MIN_WAGER; wager <= MAX_WAGER; wager++) {
+                long n = ticketCounts[profile(spots, wager)];
+                if (n == 0) {
+                    continue;
+                }
+                double m = 0.0;
+                double squares = 0.0;
+                long max = 0;
+                for (int k = 0; k <= spots; k++) {
+                    long pay = schedule.getPayoutCents(spots, k, wager);
+                    double p = KenoOdds.probability(spots, k);
+                    m += p * pay;
+                    squares += p * (double) pay * pay;
+                    max = Math.max(max, pay);
+                }
+                revenue += n * wager * PaySchedule.CENTS_PER_DOLLAR;
+                mean += n * m;
+                variance += n * (squares - m * m);
+                worst += (double) n * max;
+            }
+        }
+        this.revenueCents = revenue;
+        this.meanCents = mean;
+        this.varianceCents = variance;
+
+        double cap = Math.min(worst, mean + GRID_SIGMAS * Math.sqrt(variance));
+        this.bucketCents = Math.max(1L, (long) Math.ceil(cap / (buckets - 1)));
+        int size = (int) Math.min(buckets, (long) (cap / bucketCents) + 2);
+
+        double[] total = new double[size];
+        total[0] = 1.0;
+        for (int spots = 1; spots <= MAX_SPOTS; spots++) {
+            for (int wager = PaySchedule.MIN_WAGER; wager <= MAX_WAGER; wager++) {
+                long n = ticketCounts[profile(spots, wager)];
+                if (n != 0) {
+                    total = convolve(total, power(ticket(spots, wager, schedule, size), n));
+                }
+            }
+        }
+        double mass = 0.0;
+        for (double p : total) {
+            mass += p;
+        }
+        this.pmf = total;
+        this.overflow = Math.max(0.0, 1.0 - mass);
+    }
+
+    /**
+     * Counts the tickets in a store by payout profile, duplicates included
+     */
+    public static long[] profiles(TicketColumns tickets) {
+        long[] counts = new long[(MAX_SPOTS + 1) * MAX_WAGER];
+        for (int t = 0; t < tickets.size(); t++) {
+            counts[profile(tickets.spots(t), tickets.wager(t))] += tickets.count(t);
+        }
+        return counts;
+    }
+
+    public static int profile(int spots, int wager) {
+        return spots * MAX_WAGER + wager - 1;
+    }
+
+    /**
+     * Total stake in cents collected on the pool for one draw
+     */
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+
+    public double getMeanCents() {
+        return meanCents;
+    }
+
+    public double getStandardDeviationCents() {
+        return Math.sqrt(varianceCents);
+    }
+
+    public long getTicketCount(int spots, int wager) {
+        return ticketCounts[profile(spots, wager)];
+    }
+
+    /**
+     * Width of one bucket; bucket b stands for a total payout of b * getBucketCents()
+     */
+    public long getBucketCents() {
+        return bucketCents;
+    }
+
+    public int getBucketCount() {
+        return pmf.length;
+    }
+
+    public double probability(int bucket) {
+        return bucket >= 0 && bucket < pmf.length ? pmf[bucket] : 0.0;
+    }
+
+    /**
+     * Probability that the total payout is beyond the modelled grid
+     */
+    public double getOverflowProbability() {
+        return overflow;
+    }
+
+    /**
+     * Probability that the total payout exceeds the given amount
+     */
+    public double exceedance(long cents) {
+        double tail = overflow;
+        for (int b = pmf.length - 1; b >= 0 && b * bucketCents > cents; b--) {
+            tail += pmf[b];
+        }
+        return tail;
+    }
+
+    /**
+     * Smallest modelled payout whose cumulative probability reaches q, or
+     * Long.MAX_VALUE when q falls in the overflow beyond the grid
+     */
+    public long percentileCents(double q) {
+        double cumulative = 0.0;
+        for (int b = 0; b < pmf.length; b++) {
+            cumulative += pmf[b];
+            if (cumulative >= q) {
+                return b * bucketCents;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /*
+     * Reserve level r, in buckets, after each draw is r + revenue - payout and the house
+     * is ruined the first time it goes negative. The reserve distribution is carried on
+     * its own grid of at most 2^20 levels; levels above the top are clipped to it, and a
+     * payout in the overflow counts as ruin, so the answer errs on the side of caution.
+     */
+
+    /**
+     * Probability the reserve goes negative at some point within the given number of draws
+     */
+    public double riskOfRuin(long reserveCents, int draws) {
+        if (reserveCents < 0) {
+            return 1.0;
+        }
+        int length = pmf.length;
+        int rev = (int) Math.min(revenueCents / bucketCents, Integer.MAX_VALUE / 4);
+        int start = (int) Math.min(reserveCents / bucketCents, Integer.MAX_VALUE / 4);
+        int states = Math.min(Math.max(start + 1, length) * 2, MAX_RESERVE_STATES);
+        start = Math.min(start, states - 1);
+
+        // Correlating with the reversed pmf turns r - x into index r + (length - 1) - x
+        double[] reversed = new double[length];
+        for (int i = 0; i < length; i++) {
+            reversed[i] = pmf[length - 1 - i];
+        }
+        int size = Integer.highestOneBit(states + length - 1) << 1;
+        double[][] payout = transform(reversed, size);
+
+        double[] reserve = new double[states];
+        reserve[start] = 1.0;
+        double ruin = 0.0;
+        for (int d = 0; d < draws; d++) {
+            double[] funded = new double[states];
+            double alive = 0.0;
+            for (int r = 0; r < states; r++) {
+                if (reserve[r] != 0.0) {
+                    funded[(int) Math.min((long) r + rev, states - 1)] += reserve[r];
+                    alive += reserve[r];
+                }
+            }
+            if (alive < 1e-300) {
+                break;
+            }
+            ruin += alive * overflow;
+            double[] next = multiply(transform(funded, size), payout, states + length - 1);
+            reserve = new double[states];
+            for (int i = 0; i < next.length; i++) {
+                int r = i - (length - 1);
+                if (r < 0) {
+                    ruin += next[i];
+                } else if (r < states) {
+                    reserve[r] += next[i];
+                }
+            }
+        }
+        return Math.min(1.0, ruin);
+    }
+
+    // Payout pmf of a single ticket on the grid, each payout split between neighbouring buckets
+    private double[] ticket(int spots, int wager, PaySchedule schedule, int size) {
+        double[] single = new double[size];
+        for (int k = 0; k <= spots; k++) {
+            long pay = schedule.getPayoutCents(spots, k, wager);
+            double p = KenoOdds.probability(spots, k);
+            long bucket = pay / bucketCents;
+            double fraction = (pay - bucket * bucketCents) / (double) bucketCents;
+            if (bucket < size) {
+                single[(int) bucket] += p * (1.0 - fraction);
+            }
+            if (bucket + 1 < size) {
+                single[(int) bucket + 1] += p * fraction;
+            }
+        }
+        return single;
+    }
+
+    // n-fold sum by binary powering, truncated to the grid after every step
+    private static double[] power(double[] base, long n) {
+        double[] result = null;
+        while (true) {
+            if ((n & 1) != 0) {
+                result = result == null ? base : convolve(result, base);
+            }
+            n >>>= 1;
+            if (n == 0) {
+                return result;
+            }
+            base = convolve(base, base);
+        }
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        int size = Integer.highestOneBit(a.length + b.length - 1) << 1;
+        double[][] fa = transform(a, size);
+        double[][] fb = a == b ? fa : transform(b, size);
+        return multiply(fa, fb, a.length);
+    }
+
+    private static double[][] transform(double[] values, int size) {
+        double[] re = new double[size];
+        double[] im = new double[size];
+        System.arraycopy(values, 0, re, 0, Math.min(values.length, size));
+        fft(re, im, false);
+        return new double[][]{re, im};
+    }
+
+    // Pointwise product, inverse transform and the first length terms, rounding noise clamped to zero
+    private static double[] multiply(double[][] a, double[][] b, int length) {
+        int size = a[0].length;
+        double[] re = new double[size];
+        double[] im = new double[size];
+        for (int i = 0; i < size; i++) {
+            re[i] = a[0][i] * b[0][i] - a[1][i] * b[1][i];
+            im[i] = a[0][i] * b[1][i] + a[1][i] * b[0][i];
+        }
+        fft(re, im, true);
+        double peak = 0.0;
+        for (int i = 0; i < length; i++) {
+            peak = Math.max(peak, re[i]);
+        }
+        double floor = peak * NOISE;
+        double[] out = new double[length];
+        for (int i = 0; i < length; i++) {
+            out[i] = re[i] > floor ? re[i] / size : 0.0;
+        }
+        return out;
+    }
+
+    // In-place iterative radix-2 FFT, size must be a power of two; the inverse is unscaled
+    private static void fft(double[] re, double[] im, boolean inverse) {
+        int n = re.length;
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+        for (int len = 2; len <= n; len <<= 1) {
+            double angle = 2 * Math.PI / len * (inverse ? 1 : -1);
+            int half = len >> 1;
+            double[] cos = new double[half];
+            double[] sin = new double[half];
+            for (int k = 0; k < half; k++) {
+                cos[k] = Math.cos(angle * k);
+                sin[k] = Math.sin(angle * k);
+            }
+            for (int i = 0; i < n; i += len) {
+                for (int k = 0; k < half; k++) {
+                    int u = i + k;
+                    int v = u + half;
+                    double vr = re[v] * cos[k] - im[v] * sin[k];
+                    double vi = re[v] * sin[k] + im[v] * cos[k];
+                    re[v] = re[u] - vr;
+                    im[v] = im[u] - vi;
+                    re[u] += vr;
+                    im[u] += vi;
+                }
+            }
+        }
+    }
+}
@@ -1,61 +1,87 @@
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
 
 /**
- * Manages payout calculations for different spot combinations
+ * Manages payout calculations for different spot combinations.
+ * The active schedule sits behind a volatile reference, so a reload is a single
+ * atomic swap and readers never lock.
  */
 
 public class PayoutTable {
-    private static final Map<Integer, Map<Integer, Integer>> PAYOUTS = new HashMap<>();
-    static {
+    private static final String DEFAULT_RESOURCE = "/paytable.properties";
+    private static final String PATH_PROPERTY = "keno.paytable";
 
+    private static volatile PaySchedule active;
 
+    static {
         /*
-         * https://nclottery.com/KenoHow
+         * Default schedule ships as a classpath resource, -Dkeno.paytable=<file> overrides it
          */
-        
-        // 1 Spot
-        Map<Integer, Integer> SpotOne = new HashMap<>();
-        SpotOne.put(1, 2);
-        PAYOUTS.put(1, SpotOne);
-
-        // 4 Spot
-        Map<Integer, Integer> SpotFour = new HashMap<>();
-        SpotFour.put(2, 1);
-        SpotFour.put(3, 5);
-        SpotFour.put(4, 75);
-        PAYOUTS.put(4, SpotFour);
-
-        // 8 Spot
-        Map<Integer, Integer> SpotEight = new HashMap<>();
-        SpotEight.put(4, 2);
-        SpotEight.put(5, 12);
-        SpotEight.put(6, 50);
-        SpotEight.put(7, 750);
-        SpotEight.put(8, 10000);
-        PAYOUTS.put(8, SpotEight);
-
-        // 10 Spot
-        Map<Integer, Integer> SpotTen = new HashMap<>();
-        SpotTen.put(0, 5);
-        SpotTen.put(5, 2);
-        SpotTen.put(6, 15);
-        SpotTen.put(7, 40);
-        SpotTen.put(8, 450);
-        SpotTen.put(9, 4250);
-        SpotTen.put(10, 100000);
-        PAYOUTS.put(10, SpotTen);
+        try {
+            String path = System.getProperty(PATH_PROPERTY);
+            if (path != null) {
+                active = read(Paths.get(path));
+            } else {
+                active = readDefault();
+            }
+            active.validate();
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
     }
 
     /*
      * Gets the payout based on the given number of spots and matches
+     * @deprecated whole dollars only, fractional payouts are truncated; use getSchedule().getPayoutCents
      */
+    @Deprecated
     public static int getPayout(int spots, int matches) {
-        Map<Integer, Integer> payoutTable = PAYOUTS.get(spots);
-        if (payoutTable == null) return 0;
-        Integer payout = payoutTable.get(matches);
-        if (payout == null) return 0;
-        return payout;
+        return active.getPayout(spots, matches);
+    }
+
+    public static PaySchedule getSchedule() {
+        return active;
+    }
+
+    /**
+     * Validates and activates a schedule, returns the one it replaced
+     */
+    public static PaySchedule install(PaySchedule schedule) {
+        schedule.validate();
+        PaySchedule previous = active;
+        active = schedule;
+        return previous;
+    }
+
+    /**
+     * Loads a schedule file and activates it. On any error the current schedule stays active
+     */
+    public static PaySchedule reload(Path file) throws IOException {
+        return install(read(file));
+    }
+
+    public static PaySchedule read(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        return PaySchedule.fromProperties(props);
+    }
+
+    public static PaySchedule readDefault() throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = PayoutTable.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing " + DEFAULT_RESOURCE + " on classpath");
+            }
+            props.load(in);
+        }
+        return PaySchedule.fromProperties(props);
     }
-    
 }
@@ -0,0 +1,130 @@
+/**
+ * Lightweight per-player ticket that settles itself against draws pushed by a DrawEngine.
+ * Holds only the selection and running totals, so thousands can share one engine.
+ */
+public class PlayerSession implements DrawListener {
+    private final long selectionLo;
+    private final long selectionHi;
+    private final int spots;
+    private final int wager;
+    private final PaySchedule schedule;
+    private volatile int drawsRemaining;
+    private volatile long earnings;
+    private volatile int lastMatches = -1;
+    private volatile long lastSequence = -1;
+    private volatile Ledger.Account account;
+
+    // Constructor
+    public PlayerSession(DrawMask selection, int draws) {
+        this(selection, draws, PaySchedule.MIN_WAGER, PayoutTable.getSchedule());
+    }
+
+    public PlayerSession(DrawMask selection, int draws, int wager, PaySchedule schedule) {
+        int spots = selection.size();
+        if (spots < 1 || spots > PaySchedule.MAX_SPOTS) {
+            throw new IllegalArgumentException("Ticket must have 1-" + PaySchedule.MAX_SPOTS + " spots: " + spots);
+        }
+        if (draws < 1) {
+            throw new IllegalArgumentException("draws must be positive: " + draws);
+        }
+        if (!PaySchedule.isValidWager(wager)) {
+            throw new IllegalArgumentException("Invalid wager: " + wager);
+        }
+        this.wager = wager;
+        this.selectionLo = selection.lo();
+        this.selectionHi = selection.hi();
+        this.spots = spots;
+        this.schedule = schedule;
+        this.drawsRemaining = draws;
+    }
+
+    /**
+     * Subscribes to the engine; the session unsubscribes itself after its last draw
+     */
+    public PlayerSession join(DrawEngine engine) {
+        engine.subscribe(new Subscription(engine));
+        return this;
+    }
+
+    /**
+     * Settles the ticket against the draw if it still has draws left. Single writer: the drawing thread
+     */
+    @Override
+    public void onDraw(Draw draw) {
+        int remaining = drawsRemaining;
+        if (remaining == 0) {
+            return;
+        }
+        DrawMask mask = draw.getMask();
+        int matches = DrawMask.matchCount(selectionLo, selectionHi, mask.lo(), mask.hi());
+        long payout = schedule.getPayoutCents(spots, matches, wager);
+        earnings += payout;
+        Ledger.Account target = account;
+        if (payout > 0 && target != null) {
+            target.credit(payout);
+        }
+        lastMatches = matches;
+        lastSequence = draw.getSequence();
+        drawsRemaining = remaining - 1;
+    }
+
+    /**
+     * Credits every win to the ledger account as well
+     */
+    public PlayerSession creditTo(Ledger.Account account) {
+        this.account = account;
+        return this;
+    }
+
+    public int getSpots() {
+        return spots;
+    }
+
+    public DrawMask getSelection() {
+        return new DrawMask(selectionLo, selectionHi);
+    }
+
+    public int getDrawsRemaining() {
+        return drawsRemaining;
+    }
+
+    public boolean isComplete() {
+        return drawsRemaining == 0;
+    }
+
+    public int getWager() {
+        return wager;
+    }
+
+    /**
+     * Total won so far, in cents
+     */
+    public long getEarnings() {
+        return earnings;
+    }
+
+    public int getLastMatches() {
+        return lastMatches;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    // Forwards draws to the session and drops the subscription once it is done
+    private class Subscription implements DrawListener {
+        private final DrawEngine engine;
+
+        Subscription(DrawEngine engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public void onDraw(Draw draw) {
+            PlayerSession.this.onDraw(draw);
+            if (isComplete()) {
+                engine.unsubscribe(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * Minimal random number source used by the draw engine.
+ * Works as a method reference for Random, SplittableRandom and SecureRandom (e.g. rng::nextInt)
+ */
+@FunctionalInterface
+public interface RandomSource {
+
+    /**
+     * Returns a uniformly distributed int in [0, bound)
+     */
+    int nextInt(int bound);
+}
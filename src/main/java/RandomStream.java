@@ -0,0 +1,35 @@
+/**
+ * A random source that can also produce raw 64-bit values and independent child streams.
+ * Implemented by every mode of RngProvider.
+ */
+public interface RandomStream extends RandomSource {
+
+    long nextLong();
+
+    /**
+     * Returns a stream for another thread or task. Seeded modes derive it from this
+     * stream, so a seeded run stays reproducible however work is split
+     */
+    RandomStream split();
+
+    /**
+     * Uniform int in [0, bound) from the high 32 bits of nextLong, using Lemire's
+     * multiply-and-reject method, so there is no modulo bias and usually no division
+     */
+    @Override
+    default int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        long product = (nextLong() >>> 32) * bound;
+        long low = product & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the random number generator for each use in the game.
+ *
+ * Fast modes (SplittableRandom, xoroshiro128++) are seedable and splittable, for
+ * simulation and quick picks. The certified mode draws from the shared
+ * SecureEntropyPool and cannot be seeded. Each use has a default mode that can be
+ * overridden with -Dkeno.rng.<use>=<mode>, e.g. -Dkeno.rng.simulation=xoroshiro.
+ */
+public final class RngProvider {
+
+    public enum Mode {
+        SPLITTABLE,
+        XOROSHIRO,
+        SECURE
+    }
+
+    public enum Use {
+        LIVE_DRAW(Mode.SECURE),
+        QUICK_PICK(Mode.XOROSHIRO),
+        SIMULATION(Mode.SPLITTABLE);
+
+        private final Mode defaultMode;
+
+        Use(Mode defaultMode) {
+            this.defaultMode = defaultMode;
+        }
+
+        public String property() {
+            return "keno.rng." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private RngProvider() {
+    }
+
+    /**
+     * Mode configured for a use, falling back to its default
+     */
+    public static Mode modeFor(Use use) {
+        String configured = System.getProperty(use.property());
+        if (configured == null || configured.trim().isEmpty()) {
+            return use.defaultMode;
+        }
+        try {
+            return Mode.valueOf(configured.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown RNG mode for " + use.property() + ": " + configured);
+        }
+    }
+
+    public static RandomStream forUse(Use use) {
+        return create(modeFor(use));
+    }
+
+    /**
+     * A stream in the given mode, fast modes seeded unpredictably
+     */
+    public static RandomStream create(Mode mode) {
+        return create(mode, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * A stream in the given mode. The seed is ignored by the certified mode
+     */
+    public static RandomStream create(Mode mode, long seed) {
+        switch (mode) {
+            case SPLITTABLE:
+                return new SplittableStream(new SplittableRandom(seed));
+            case XOROSHIRO:
+                return new Xoroshiro128PlusPlus(seed);
+            case SECURE:
+                return SecureEntropyPool.shared();
+            default:
+                throw new IllegalArgumentException("Unknown RNG mode: " + mode);
+        }
+    }
+
+    /**
+     * Adapts a java.util.Random, e.g. a seeded one in tests. Not splittable
+     */
+    public static RandomStream wrap(Random rng) {
+        return new RandomStream() {
+            @Override
+            public long nextLong() {
+                return rng.nextLong();
+            }
+
+            @Override
+            public int nextInt(int bound) {
+                return rng.nextInt(bound);
+            }
+
+            @Override
+            public RandomStream split() {
+                return this;
+            }
+        };
+    }
+
+    private static final class SplittableStream implements RandomStream {
+        private final SplittableRandom rng;
+
+        SplittableStream(SplittableRandom rng) {
+            this.rng = rng;
+        }
+
+        @Override
+        public long nextLong() {
+            return rng.nextLong();
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return rng.nextInt(bound);
+        }
+
+        @Override
+        public RandomStream split() {
+            return new SplittableStream(rng.split());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SecureRandom output buffered ahead of demand for the certified RNG mode.
+ *
+ * A daemon thread fills fixed blocks of random longs and queues them; callers take
+ * values from the current block and swap in a full one when it runs out, so a live
+ * draw never waits on the entropy source. Only if every block is drained does a
+ * caller read the SecureRandom directly, which is counted as a fallback.
+ * Thread-safe; one shared pool serves the whole process. Pools made for a single
+ * job should be closed to stop their refill thread.
+ */
+public final class SecureEntropyPool implements RandomStream, AutoCloseable {
+    public static final int BLOCK_LONGS = 1024;
+    public static final int DEFAULT_BLOCKS = 16;
+    public static final String ALGORITHM_PROPERTY = "keno.rng.secure.algorithm";
+
+    private static final String DEFAULT_ALGORITHM = "DRBG";
+
+    private static SecureEntropyPool shared;
+
+    private final SecureRandom secure;
+    private final ArrayBlockingQueue<long[]> full;
+    private final ArrayBlockingQueue<long[]> empty;
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final Thread refiller;
+    private long[] current = new long[BLOCK_LONGS];
+    private int position = BLOCK_LONGS;
+
+    // Constructor
+    public SecureEntropyPool(SecureRandom secure, int blocks) {
+        if (blocks < 1) {
+            throw new IllegalArgumentException("blocks must be positive: " + blocks);
+        }
+        this.secure = secure;
+        this.full = new ArrayBlockingQueue<>(blocks);
+        this.empty = new ArrayBlockingQueue<>(blocks);
+        for (int i = 0; i < blocks; i++) {
+            empty.add(new long[BLOCK_LONGS]);
+        }
+        this.refiller = new Thread(this::refillLoop, "secure-entropy-refill");
+        this.refiller.setDaemon(true);
+        this.refiller.start();
+    }
+
+    /**
+     * The process-wide pool, using the algorithm named by -Dkeno.rng.secure.algorithm (DRBG by default)
+     */
+    public static synchronized SecureEntropyPool shared() {
+        if (shared == null) {
+            shared = new SecureEntropyPool(newSecureRandom(), DEFAULT_BLOCKS);
+        }
+        return shared;
+    }
+
+    @Override
+    public synchronized long nextLong() {
+        if (position == current.length) {
+            long[] next = full.poll();
+            if (next == null) {
+                fallbacks.incrementAndGet();
+                return secure.nextLong();
+            }
+            empty.offer(current);
+            current = next;
+            position = 0;
+        }
+        return current[position++];
+    }
+
+    /**
+     * All callers share the pool; there is nothing to seed a child from
+     */
+    @Override
+    public SecureEntropyPool split() {
+        return this;
+    }
+
+    /**
+     * Blocks filled and waiting to be used
+     */
+    public int getAvailableBlocks() {
+        return full.size();
+    }
+
+    /**
+     * Values served straight from SecureRandom because the buffer ran dry
+     */
+    public long getFallbackCount() {
+        return fallbacks.get();
+    }
+
+    public String getAlgorithm() {
+        return secure.getAlgorithm();
+    }
+
+    /**
+     * Stops the refill thread. Blocks already filled are still served, after that
+     * every value comes straight from SecureRandom
+     */
+    @Override
+    public void close() {
+        refiller.interrupt();
+        try {
+            refiller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void refillLoop() {
+        ByteBuffer bytes = ByteBuffer.allocate(BLOCK_LONGS * Long.BYTES);
+        try {
+            while (true) {
+                long[] block = empty.take();
+                secure.nextBytes(bytes.array());
+                bytes.clear();
+                for (int i = 0; i < BLOCK_LONGS; i++) {
+                    block[i] = bytes.getLong();
+                }
+                full.put(block);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SecureRandom newSecureRandom() {
+        String algorithm = System.getProperty(ALGORITHM_PROPERTY, DEFAULT_ALGORITHM);
+        try {
+            return SecureRandom.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Per-ticket match counts and payouts for one draw, plus aggregate totals. Amounts are in cents.
+ * A totals-only settlement carries no per-ticket arrays. Per-ticket arrays are indexed by
+ * entry; in an aggregating store one entry stands for several tickets.
+ */
+public class SettlementResult {
+    private final int ticketCount;
+    private final long settledTickets;
+    private final byte[] matches;
+    private final long[] payouts;
+    private final long totalPayout;
+    private final long winningTickets;
+    private final long elapsedNanos;
+
+    // Constructor
+    public SettlementResult(byte[] matches, long[] payouts, long totalPayout, long winningTickets, long elapsedNanos) {
+        this(matches.length, matches.length, matches, payouts, totalPayout, winningTickets, elapsedNanos);
+    }
+
+    public SettlementResult(int ticketCount, long settledTickets, byte[] matches, long[] payouts,
+                            long totalPayout, long winningTickets, long elapsedNanos) {
+        this.ticketCount = ticketCount;
+        this.settledTickets = settledTickets;
+        this.matches = matches;
+        this.payouts = payouts;
+        this.totalPayout = totalPayout;
+        this.winningTickets = winningTickets;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Number of entries settled, the length of the per-ticket arrays
+     */
+    public int getTicketCount() {
+        return ticketCount;
+    }
+
+    /**
+     * Number of tickets settled, counting every copy an entry stands for and
+     * leaving out tickets whose draw range does not cover the draw
+     */
+    public long getSettledTickets() {
+        return settledTickets;
+    }
+
+    public boolean hasTicketDetail() {
+        return matches != null;
+    }
+
+    public int getMatches(int ticket) {
+        return matches[ticket];
+    }
+
+    public long getPayoutCents(int ticket) {
+        return payouts[ticket];
+    }
+
+    public long getTotalPayoutCents() {
+        return totalPayout;
+    }
+
+    public long getWinningTickets() {
+        return winningTickets;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double ticketsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0.0;
+        }
+        return settledTickets * 1e9 / elapsedNanos;
+    }
+}
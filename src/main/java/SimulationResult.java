@@ -0,0 +1,106 @@
+/**
+ * Match histogram and derived statistics from a simulation run
+ */
+public class SimulationResult {
+    public static final int MAX_SPOTS = PaySchedule.MAX_SPOTS;
+
+    private final long draws;
+    private final long[][] histogram;
+    private final long elapsedNanos;
+    private final PaySchedule schedule;
+
+    // Constructor, histogram[spots][matches] counts draws per match result
+    public SimulationResult(long draws, long[][] histogram, long elapsedNanos, PaySchedule schedule) {
+        this.draws = draws;
+        this.histogram = histogram;
+        this.elapsedNanos = elapsedNanos;
+        this.schedule = schedule;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public PaySchedule getSchedule() {
+        return schedule;
+    }
+
+    public long getCount(int spots, int matches) {
+        return histogram[spots][matches];
+    }
+
+    public double drawsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0.0;
+        }
+        return draws * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Average amount returned per $1 bet
+     */
+    public double rtp(int spots) {
+        double total = 0.0;
+        for (int k = 0; k <= spots; k++) {
+            total += histogram[spots][k] * payout(spots, k);
+        }
+        return total / draws;
+    }
+
+    /**
+     * Fraction of draws where the ticket paid anything
+     */
+    public double hitRate(int spots) {
+        long hits = 0;
+        for (int k = 0; k <= spots; k++) {
+            if (schedule.getPayoutCents(spots, k) > 0) {
+                hits += histogram[spots][k];
+            }
+        }
+        return (double) hits / draws;
+    }
+
+    /**
+     * Variance of the payout per $1 bet
+     */
+    public double variance(int spots) {
+        double mean = rtp(spots);
+        double sumSquares = 0.0;
+        for (int k = 0; k <= spots; k++) {
+            double payout = payout(spots, k);
+            sumSquares += histogram[spots][k] * payout * payout;
+        }
+        return sumSquares / draws - mean * mean;
+    }
+
+    // Payout per $1 bet in dollars
+    private double payout(int spots, int matches) {
+        return schedule.getPayoutCents(spots, matches) / (double) PaySchedule.CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Builds a plain text report for every spot count that has a pay schedule
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Schedule: ").append(schedule.getName()).append(System.lineSeparator());
+        sb.append(String.format("Draws: %,d in %.2f s (%,.0f draws/sec)%n",
+            draws, elapsedNanos / 1e9, drawsPerSecond()));
+        for (int spots = 1; spots <= MAX_SPOTS; spots++) {
+            if (!schedule.hasPayouts(spots)) {
+                continue;
+            }
+            sb.append(String.format("%n%d spot: RTP %.5f (exact %.5f)  hit rate %.5f (1 in %.2f)  variance %.3f%n",
+                spots, rtp(spots), schedule.rtp(spots), hitRate(spots), 1.0 / hitRate(spots), variance(spots)));
+            for (int k = 0; k <= spots; k++) {
+                sb.append(String.format("  %2d matches  pays %9.2f  %,15d%n",
+                    k, payout(spots, k), histogram[spots][k]));
+            }
+        }
+        return sb.toString();
+    }
+}
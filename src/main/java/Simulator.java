@@ -0,0 +1,121 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless Monte Carlo simulation of the draw engine for return-to-player analysis.
+ * Draws are split across a fork/join pool with one split RNG stream per task, in the
+ * mode configured for RngProvider.Use.SIMULATION unless one is given.
+ */
+public class Simulator {
+    private static final int LEAF_DRAWS = 1 << 20;
+    private static final int MAX_SPOTS = SimulationResult.MAX_SPOTS;
+    private static final int STRIDE = MAX_SPOTS + 1;
+
+    /*
+     * Ticket for s spots is the numbers 1..s. Draws are uniform, so a fixed
+     * ticket has exactly the same match distribution as a quick pick and lets
+     * every spot count be scored against the same draw.
+     */
+    private static final long[] TICKET_LO = new long[STRIDE];
+    private static final long[] TICKET_HI = new long[STRIDE];
+
+    static {
+        for (int spots = 1; spots <= MAX_SPOTS; spots++) {
+            TICKET_LO[spots] = TICKET_LO[spots - 1] | DrawMask.loBit(spots);
+            TICKET_HI[spots] = TICKET_HI[spots - 1] | DrawMask.hiBit(spots);
+        }
+    }
+
+    /**
+     * Runs the given number of draws on all available cores
+     */
+    public static SimulationResult run(long draws, long seed) {
+        return run(draws, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static SimulationResult run(long draws, long seed, int parallelism) {
+        return run(draws, seed, parallelism, RngProvider.modeFor(RngProvider.Use.SIMULATION));
+    }
+
+    public static SimulationResult run(long draws, long seed, int parallelism, RngProvider.Mode mode) {
+        if (draws <= 0) {
+            throw new IllegalArgumentException("draws must be positive: " + draws);
+        }
+        PaySchedule schedule = PayoutTable.getSchedule();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            long[] flat = pool.invoke(new SimulationTask(draws, RngProvider.create(mode, seed)));
+            long elapsed = System.nanoTime() - start;
+            long[][] histogram = new long[STRIDE][STRIDE];
+            for (int spots = 0; spots <= MAX_SPOTS; spots++) {
+                System.arraycopy(flat, spots * STRIDE, histogram[spots], 0, STRIDE);
+            }
+            return new SimulationResult(draws, histogram, elapsed, schedule);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Splits the draw count in half until it fits in a leaf, then simulates it
+     */
+    private static class SimulationTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final long draws;
+        private final RandomStream rng;
+
+        SimulationTask(long draws, RandomStream rng) {
+            this.draws = draws;
+            this.rng = rng;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (draws <= LEAF_DRAWS) {
+                return simulate(draws, rng);
+            }
+            long half = draws / 2;
+            SimulationTask left = new SimulationTask(half, rng.split());
+            left.fork();
+            long[] right = new SimulationTask(draws - half, rng).compute();
+            long[] merged = left.join();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += right[i];
+            }
+            return merged;
+        }
+    }
+
+    // Inner loop: one mask draw, then an AND and popcount per spot count
+    private static long[] simulate(long draws, RandomStream rng) {
+        long[] histogram = new long[STRIDE * STRIDE];
+        long[] mask = new long[2];
+        DrawGenerator generator = DrawGenerator.forCurrentThread();
+        for (long d = 0; d < draws; d++) {
+            generator.drawMask(rng, DrawGenerator.DRAW_SIZE, mask);
+            for (int spots = 1; spots <= MAX_SPOTS; spots++) {
+                int matches = DrawMask.matchCount(TICKET_LO[spots], TICKET_HI[spots], mask[0], mask[1]);
+                histogram[spots * STRIDE + matches]++;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Usage: Simulator [draws] [seed] [threads] [splittable|xoroshiro|secure]
+     */
+    public static void main(String[] args) {
+        long draws = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        RngProvider.Mode mode = args.length > 3
+            ? RngProvider.Mode.valueOf(args[3].toUpperCase(java.util.Locale.ROOT))
+            : RngProvider.modeFor(RngProvider.Use.SIMULATION);
+        System.out.println("Simulating " + draws + " draws on " + threads + " threads (" + mode
+            + ", seed " + seed + ")");
+        SimulationResult result = run(draws, seed, threads, mode);
+        System.out.print(result.report());
+    }
+}
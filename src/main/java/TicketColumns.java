@@ -0,0 +1,28 @@
+/**
+ * Read access to a column store of straight tickets, as used by the settlement loops.
+ * Entry IDs run from 0 to size() - 1.
+ */
+public interface TicketColumns {
+    int size();
+
+    long lo(int ticket);
+
+    long hi(int ticket);
+
+    int spots(int ticket);
+
+    int wager(int ticket);
+
+    /**
+     * Number of identical tickets the entry stands for
+     */
+    int count(int ticket);
+
+    /**
+     * Whether the entry plays the draw with the given sequence number. Stores without
+     * draw ranges play every draw
+     */
+    default boolean plays(int ticket, long drawSequence) {
+        return true;
+    }
+}
@@ -0,0 +1,238 @@
+import java.util.Arrays;
+
+/**
+ * Columnar store of straight tickets: one primitive array per field, entry ID = row index.
+ *
+ * An aggregating store collapses identical tickets (same selection and wager, and so
+ * the same spots) into one entry with a count, found through an open-addressing hash
+ * on the selection mask. Settlement then runs once per distinct entry and multiplies
+ * by its count. In a plain store every entry has a count of one.
+ */
+public class TicketStore implements TicketColumns {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final boolean aggregating;
+    private long[] lo;
+    private long[] hi;
+    private byte[] spots;
+    private byte[] wager;
+    private int[] count;
+    private int size;
+    private long totalTickets;
+    // Open-addressing table of entry index + 1, zero marks an empty slot
+    private int[] slots;
+
+    // Constructor
+    public TicketStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public TicketStore(int capacity) {
+        this(capacity, false);
+    }
+
+    public TicketStore(int capacity, boolean aggregating) {
+        capacity = Math.max(capacity, 1);
+        this.aggregating = aggregating;
+        lo = new long[capacity];
+        hi = new long[capacity];
+        spots = new byte[capacity];
+        wager = new byte[capacity];
+        count = new int[capacity];
+        if (aggregating) {
+            slots = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+        }
+    }
+
+    /**
+     * Creates a store that collapses identical tickets into counted entries
+     */
+    public static TicketStore aggregating() {
+        return new TicketStore(INITIAL_CAPACITY, true);
+    }
+
+    /**
+     * Adds a $1 ticket and returns its entry ID
+     */
+    public int add(DrawMask selection) {
+        return add(selection.lo(), selection.hi(), PaySchedule.MIN_WAGER);
+    }
+
+    public int add(DrawMask selection, int wagerDollars) {
+        return add(selection.lo(), selection.hi(), wagerDollars);
+    }
+
+    public int add(DrawMask selection, int wagerDollars, int copies) {
+        return add(selection.lo(), selection.hi(), wagerDollars, copies);
+    }
+
+    public int add(long selectionLo, long selectionHi) {
+        return add(selectionLo, selectionHi, PaySchedule.MIN_WAGER);
+    }
+
+    public int add(long selectionLo, long selectionHi, int wagerDollars) {
+        return add(selectionLo, selectionHi, wagerDollars, 1);
+    }
+
+    /**
+     * Adds copies identical tickets; an aggregating store merges them into an existing entry
+     */
+    public int add(long selectionLo, long selectionHi, int wagerDollars, int copies) {
+        if (!PaySchedule.isValidWager(wagerDollars)) {
+            throw new IllegalArgumentException("Wager must be $" + PaySchedule.MIN_WAGER
+                + "-$" + PaySchedule.MAX_WAGER + ": " + wagerDollars);
+        }
+        if (copies < 1) {
+            throw new IllegalArgumentException("copies must be positive: " + copies);
+        }
+        selectionHi &= DrawMask.HI_MASK;
+        int picked = Long.bitCount(selectionLo) + Long.bitCount(selectionHi);
+        if (picked < 1 || picked > PaySchedule.MAX_SPOTS) {
+            throw new IllegalArgumentException("Ticket must have 1-" + PaySchedule.MAX_SPOTS + " spots: " + picked);
+        }
+        totalTickets += copies;
+        if (aggregating) {
+            int existing = find(selectionLo, selectionHi, wagerDollars);
+            if (existing >= 0) {
+                count[existing] += copies;
+                return existing;
+            }
+        }
+        if (size == lo.length) {
+            grow();
+        }
+        lo[size] = selectionLo;
+        hi[size] = selectionHi;
+        spots[size] = (byte) picked;
+        wager[size] = (byte) wagerDollars;
+        count[size] = copies;
+        if (aggregating) {
+            insert(size);
+        }
+        return size++;
+    }
+
+    /**
+     * Number of entries (distinct tickets in an aggregating store)
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of tickets added, counting duplicates
+     */
+    public long getTotalTickets() {
+        return totalTickets;
+    }
+
+    /**
+     * Tickets per stored entry, 1.0 when nothing was collapsed
+     */
+    public double getDedupRatio() {
+        return size == 0 ? 1.0 : (double) totalTickets / size;
+    }
+
+    public boolean isAggregating() {
+        return aggregating;
+    }
+
+    public void clear() {
+        size = 0;
+        totalTickets = 0;
+        if (aggregating) {
+            Arrays.fill(slots, 0);
+        }
+    }
+
+    /*
+     * Column accessors for settlement loops
+     */
+
+    @Override
+    public long lo(int ticket) {
+        return lo[ticket];
+    }
+
+    @Override
+    public long hi(int ticket) {
+        return hi[ticket];
+    }
+
+    @Override
+    public int spots(int ticket) {
+        return spots[ticket];
+    }
+
+    @Override
+    public int wager(int ticket) {
+        return wager[ticket];
+    }
+
+    @Override
+    public int count(int ticket) {
+        return count[ticket];
+    }
+
+    public DrawMask selection(int ticket) {
+        return new DrawMask(lo[ticket], hi[ticket]);
+    }
+
+    private int find(long selectionLo, long selectionHi, int wagerDollars) {
+        int mask = slots.length - 1;
+        for (int slot = hash(selectionLo, selectionHi, wagerDollars) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (lo[entry] == selectionLo && hi[entry] == selectionHi && wager[entry] == wagerDollars) {
+                return entry;
+            }
+        }
+    }
+
+    private void insert(int entry) {
+        if ((size + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        int mask = slots.length - 1;
+        int slot = hash(lo[entry], hi[entry], wager[entry]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = entry + 1;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hash(lo[entry], hi[entry], wager[entry]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+    }
+
+    // 64-bit mix of the key words (murmur3 finalizer), folded to an int
+    private static int hash(long selectionLo, long selectionHi, int wagerDollars) {
+        long h = selectionLo * 0x9E3779B97F4A7C15L ^ (selectionHi << 8 | wagerDollars);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private void grow() {
+        int capacity = lo.length * 2;
+        lo = Arrays.copyOf(lo, capacity);
+        hi = Arrays.copyOf(hi, capacity);
+        spots = Arrays.copyOf(spots, capacity);
+        wager = Arrays.copyOf(wager, capacity);
+        count = Arrays.copyOf(count, capacity);
+    }
+}
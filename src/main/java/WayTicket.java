@@ -0,0 +1,181 @@
+import java.util.Arrays;
+
+/**
+ * A way ticket: disjoint groups of numbers, where every combination of groups is a
+ * separate straight sub-ticket ("way") with the same wager. Only combinations whose
+ * spot count is listed in waySpots are played. A king ticket adds one king number
+ * that is forced into every way, so the king on its own is also a way when 1 spot is played.
+ *
+ * Ways are never materialized. Settlement counts, over the groups, how many
+ * combinations reach each (spots, matches) cell and prices each cell once, so it costs
+ * O(groups x 11 x 11) however many ways the ticket holds.
+ */
+public class WayTicket {
+    public static final int MAX_GROUPS = 20;
+
+    private static final int STRIDE = PaySchedule.STRIDE;
+    private static final int MAX_SPOTS = PaySchedule.MAX_SPOTS;
+
+    private final long[] groupLo;
+    private final long[] groupHi;
+    private final int[] groupSpots;
+    private final int king;
+    private final boolean[] played = new boolean[STRIDE];
+    private final int wager;
+    private final long wayCount;
+
+    // Constructor
+    public WayTicket(DrawMask[] groups, int[] waySpots, int wager) {
+        this(groups, 0, waySpots, wager);
+    }
+
+    public WayTicket(DrawMask[] groups, int king, int[] waySpots, int wager) {
+        if (groups.length > MAX_GROUPS) {
+            throw new IllegalArgumentException("At most " + MAX_GROUPS + " groups: " + groups.length);
+        }
+        if (!PaySchedule.isValidWager(wager)) {
+            throw new IllegalArgumentException("Wager must be $" + PaySchedule.MIN_WAGER
+                + "-$" + PaySchedule.MAX_WAGER + ": " + wager);
+        }
+        if (king != 0 && (king < 1 || king > DrawMask.MAX_NUMBER)) {
+            throw new IllegalArgumentException("King number must be 1-" + DrawMask.MAX_NUMBER + ": " + king);
+        }
+        this.groupLo = new long[groups.length];
+        this.groupHi = new long[groups.length];
+        this.groupSpots = new int[groups.length];
+        long usedLo = king == 0 ? 0L : DrawMask.loBit(king);
+        long usedHi = king == 0 ? 0L : DrawMask.hiBit(king);
+        for (int g = 0; g < groups.length; g++) {
+            DrawMask group = groups[g];
+            if (group.isEmpty() || group.size() > MAX_SPOTS) {
+                throw new IllegalArgumentException("Group must have 1-" + MAX_SPOTS + " numbers: " + group);
+            }
+            if ((group.lo() & usedLo) != 0 || (group.hi() & usedHi) != 0) {
+                throw new IllegalArgumentException("Groups and king must not share numbers: " + group);
+            }
+            usedLo |= group.lo();
+            usedHi |= group.hi();
+            groupLo[g] = group.lo();
+            groupHi[g] = group.hi();
+            groupSpots[g] = group.size();
+        }
+        for (int spots : waySpots) {
+            if (spots < 1 || spots > MAX_SPOTS) {
+                throw new IllegalArgumentException("Way spots must be 1-" + MAX_SPOTS + ": " + spots);
+            }
+            played[spots] = true;
+        }
+        this.king = king;
+        this.wager = wager;
+
+        long[] ways = countWays(null, 0L, 0L);
+        long total = 0;
+        for (int cell = 0; cell < ways.length; cell++) {
+            if (played[cell / STRIDE]) {
+                total += ways[cell];
+            }
+        }
+        this.wayCount = total;
+    }
+
+    /**
+     * Total payout in cents over every way for the draw
+     */
+    public long settle(DrawMask draw, PaySchedule schedule) {
+        return settle(draw.lo(), draw.hi(), schedule);
+    }
+
+    public long settle(DrawMask draw) {
+        return settle(draw.lo(), draw.hi(), PayoutTable.getSchedule());
+    }
+
+    public long settle(long drawLo, long drawHi, PaySchedule schedule) {
+        long[] ways = countWays(schedule, drawLo, drawHi);
+        long total = 0;
+        for (int spots = 1; spots <= MAX_SPOTS; spots++) {
+            if (!played[spots]) {
+                continue;
+            }
+            for (int matches = 0; matches <= spots; matches++) {
+                long n = ways[spots * STRIDE + matches];
+                if (n != 0) {
+                    total += n * schedule.getPayoutCents(spots, matches, wager);
+                }
+            }
+        }
+        return total;
+    }
+
+    /*
+     * ways[s * STRIDE + k] = number of group combinations (king included) with s spots
+     * of which k are drawn. Each group either joins a combination, shifting it by its
+     * own (spots, matches), or not; combinations past 10 spots can never be played.
+     * With no schedule every group counts as unmatched, which leaves just the spot counts.
+     */
+    private long[] countWays(PaySchedule schedule, long drawLo, long drawHi) {
+        long[] ways = new long[STRIDE * STRIDE];
+        if (king != 0) {
+            boolean kingHit = schedule != null && DrawMask.contains(drawLo, drawHi, king);
+            ways[STRIDE + (kingHit ? 1 : 0)] = 1;
+        } else {
+            ways[0] = 1;
+        }
+        for (int g = 0; g < groupSpots.length; g++) {
+            int size = groupSpots[g];
+            int hits = schedule == null ? 0 : DrawMask.matchCount(groupLo[g], groupHi[g], drawLo, drawHi);
+            // Walk downwards so every combination takes each group at most once
+            for (int spots = MAX_SPOTS - size; spots >= 0; spots--) {
+                for (int matches = spots; matches >= 0; matches--) {
+                    long n = ways[spots * STRIDE + matches];
+                    if (n != 0) {
+                        ways[(spots + size) * STRIDE + matches + hits] += n;
+                    }
+                }
+            }
+        }
+        if (king == 0) {
+            ways[0] = 0;
+        }
+        return ways;
+    }
+
+    /**
+     * Number of straight sub-tickets the ticket stands for
+     */
+    public long getWayCount() {
+        return wayCount;
+    }
+
+    /**
+     * Total stake in dollars across all ways
+     */
+    public long getTotalWager() {
+        return wayCount * wager;
+    }
+
+    public int getGroupCount() {
+        return groupSpots.length;
+    }
+
+    public DrawMask getGroup(int g) {
+        return new DrawMask(groupLo[g], groupHi[g]);
+    }
+
+    public boolean isKingTicket() {
+        return king != 0;
+    }
+
+    public int getKing() {
+        return king;
+    }
+
+    public int getWager() {
+        return wager;
+    }
+
+    @Override
+    public String toString() {
+        return "WayTicket{groups=" + Arrays.toString(groupSpots) + ", king=" + king
+            + ", ways=" + wayCount + ", wager=" + wager + "}";
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * xoroshiro128++ generator (Blackman and Vigna): 128 bits of state, period 2^128 - 1,
+ * a handful of ALU operations per value and no synchronization. Not for concurrent use;
+ * give each thread its own stream with split() or jump().
+ */
+public final class Xoroshiro128PlusPlus implements RandomStream {
+    private static final long[] JUMP = {0x2BD7A6A6E99C2DDCL, 0x0992CCAF6A6FCA05L};
+
+    private long s0;
+    private long s1;
+
+    // Constructor, the seed is expanded with SplitMix64 so any value, including 0, is fine
+    public Xoroshiro128PlusPlus(long seed) {
+        setSeed(seed);
+    }
+
+    public Xoroshiro128PlusPlus(long s0, long s1) {
+        if (s0 == 0 && s1 == 0) {
+            throw new IllegalArgumentException("State must not be all zero");
+        }
+        this.s0 = s0;
+        this.s1 = s1;
+    }
+
+    /**
+     * Reseeds in place, so a draw can be regenerated from its seed without allocating
+     */
+    public void setSeed(long seed) {
+        long x = seed;
+        x += 0x9E3779B97F4A7C15L;
+        s0 = mix(x);
+        x += 0x9E3779B97F4A7C15L;
+        s1 = mix(x);
+    }
+
+    @Override
+    public long nextLong() {
+        long a = s0;
+        long b = s1;
+        long result = Long.rotateLeft(a + b, 17) + a;
+        b ^= a;
+        s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+        s1 = Long.rotateLeft(b, 28);
+        return result;
+    }
+
+    @Override
+    public Xoroshiro128PlusPlus split() {
+        return new Xoroshiro128PlusPlus(nextLong());
+    }
+
+    /**
+     * Advances the state by 2^64 values, giving a non-overlapping stream
+     */
+    public void jump() {
+        long a = 0;
+        long b = 0;
+        for (long word : JUMP) {
+            for (int bit = 0; bit < 64; bit++) {
+                if ((word & 1L << bit) != 0) {
+                    a ^= s0;
+                    b ^= s1;
+                }
+                nextLong();
+            }
+        }
+        s0 = a;
+        s1 = b;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}